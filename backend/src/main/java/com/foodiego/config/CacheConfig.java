@@ -0,0 +1,56 @@
+package com.foodiego.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RESTAURANTS = "restaurants";
+    public static final String RESTAURANT_MENUS = "restaurantMenus";
+
+    @Value("${cache.restaurants.max-size:10000}")
+    private long restaurantsMaxSize;
+
+    // Bounds how long a read that raced an update can keep serving the entry it re-cached
+    @Value("${cache.restaurants.expire-after-write:10m}")
+    private Duration restaurantsExpireAfterWrite;
+
+    @Value("${cache.menus.max-weight:200000}")
+    private long menusMaxWeight;
+
+    @Value("${cache.menus.expire-after-write:1h}")
+    private Duration menusExpireAfterWrite;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+
+        caffeineCacheManager.registerCustomCache(RESTAURANTS, Caffeine.newBuilder()
+                .maximumSize(restaurantsMaxSize)
+                .expireAfterWrite(restaurantsExpireAfterWrite)
+                .recordStats()
+                .build());
+
+        // Menus are weighed by item count so one huge menu cannot crowd out hundreds of small ones
+        caffeineCacheManager.registerCustomCache(RESTAURANT_MENUS, Caffeine.newBuilder()
+                .maximumWeight(menusMaxWeight)
+                .weigher((Object key, Object value) -> 1 + ((List<?>) value).size())
+                .expireAfterWrite(menusExpireAfterWrite)
+                .recordStats()
+                .build());
+
+        // Evictions issued inside a transaction are deferred until it commits
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -50,6 +50,11 @@ public class CorsConfig {
         configuration.addExposedHeader("Content-Type");
         configuration.addExposedHeader("Access-Control-Allow-Origin");
         configuration.addExposedHeader("Access-Control-Allow-Credentials");
+        configuration.addExposedHeader("ETag");
+        configuration.addExposedHeader("Last-Modified");
+        configuration.addExposedHeader("Idempotent-Replayed");
+        configuration.addExposedHeader("Location");
+        configuration.addExposedHeader("Retry-After");
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
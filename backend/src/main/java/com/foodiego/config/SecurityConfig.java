@@ -1,5 +1,6 @@
 package com.foodiego.config;
 
+import com.foodiego.security.AdmissionControlFilter;
 import com.foodiego.security.AuthEntryPointJwt;
 import com.foodiego.security.AuthTokenFilter;
 import com.foodiego.security.UserDetailsServiceImpl;
@@ -27,6 +28,7 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthEntryPointJwt unauthorizedHandler;
     private final AuthTokenFilter authTokenFilter;
+    private final AdmissionControlFilter admissionControlFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -54,9 +56,14 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Bulk order data and revenue: signed-in staff only, ahead of the public matchers below
+                        .requestMatchers("/api/orders/export").hasAnyRole("ADMIN", "ACCOUNTANT")
+                        .requestMatchers("/api/restaurants/*/analytics/**").hasAnyRole("ADMIN", "ACCOUNTANT")
                         .requestMatchers("/api/restaurants/**").permitAll()
                         .requestMatchers("/api/menu-items/**").permitAll()
                         .requestMatchers("/api/orders/**").permitAll()
+                        .requestMatchers("/api/search/**").permitAll()
+                        .requestMatchers("/api/cart/**").permitAll()
                         .requestMatchers("/api/upload/**").permitAll()
                         .requestMatchers("/restaurants/**").permitAll()  // Static images
                         .requestMatchers("/menu-items/**").permitAll()   // Static images
@@ -69,6 +76,8 @@ public class SecurityConfig {
         http.headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()));
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        // Runs ahead of the JWT filter so a throttled request never triggers the user lookup
+        http.addFilterBefore(admissionControlFilter, AuthTokenFilter.class);
 
         return http.build();
     }
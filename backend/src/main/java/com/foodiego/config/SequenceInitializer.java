@@ -0,0 +1,46 @@
+package com.foodiego.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Entities that moved from IDENTITY to pooled sequences keep their existing rows, so each
+ * sequence is advanced past the table's current max id before the application takes traffic.
+ * Runs after the entity manager factory so that schema updates have created the sequences.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceInitializer {
+
+    // Must match the allocationSize of the entities' @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        align("menu_items_seq", "menu_items");
+        align("orders_seq", "orders");
+        align("order_items_seq", "order_items");
+    }
+
+    private void align(String sequence, String table) {
+        try {
+            Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST(" +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + ", " +
+                    "(SELECT last_value FROM " + sequence + ")))",
+                    Long.class);
+            log.info("Sequence {} aligned with {} at {}", sequence, table, value);
+        } catch (DataAccessException ex) {
+            log.warn("Could not align sequence {} with table {}: {}", sequence, table, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.foodiego.controller;
+
+import com.foodiego.dto.RevenueAnalyticsDTO;
+import com.foodiego.model.OrderRollup.Granularity;
+import com.foodiego.service.OrderAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/restaurants/{restaurantId}/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    @GetMapping("/revenue")
+    public ResponseEntity<RevenueAnalyticsDTO> getRevenue(
+            @PathVariable Long restaurantId,
+            @RequestParam(defaultValue = "DAY") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(orderAnalyticsService.getRevenue(restaurantId, granularity, from, to));
+    }
+}
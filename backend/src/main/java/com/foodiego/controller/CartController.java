@@ -0,0 +1,25 @@
+package com.foodiego.controller;
+
+import com.foodiego.dto.CartQuoteDTO;
+import com.foodiego.dto.CartQuoteRequest;
+import com.foodiego.service.PricingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cart")
+@RequiredArgsConstructor
+public class CartController {
+
+    private final PricingService pricingService;
+
+    @PostMapping("/quote")
+    public ResponseEntity<CartQuoteDTO> quote(@Valid @RequestBody CartQuoteRequest request) {
+        return ResponseEntity.ok(pricingService.quote(request));
+    }
+}
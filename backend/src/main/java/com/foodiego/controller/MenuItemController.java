@@ -1,14 +1,25 @@
 package com.foodiego.controller;
 
+import com.foodiego.dto.BulkImportResultDTO;
 import com.foodiego.dto.MenuItemDTO;
+import com.foodiego.dto.ResourceVersion;
+import com.foodiego.service.MenuImportService;
 import com.foodiego.service.MenuItemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/menu-items")
@@ -16,14 +27,30 @@ import java.util.List;
 public class MenuItemController {
 
     private final MenuItemService menuItemService;
+    private final MenuImportService menuImportService;
 
     @GetMapping("/restaurant/{restaurantId}")
     public ResponseEntity<List<MenuItemDTO>> getMenuItemsByRestaurant(@PathVariable Long restaurantId) {
-        return ResponseEntity.ok(menuItemService.getMenuItemsByRestaurant(restaurantId));
+        List<MenuItemDTO> menuItems = menuItemService.getMenuItemsByRestaurant(restaurantId);
+        LocalDateTime newest = menuItems.stream()
+                .map(MenuItemDTO::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        ResourceVersion version = ResourceVersion.ofCollection("menu", restaurantId, newest, menuItems.size());
+        return ResponseEntity.ok()
+                .eTag(version.getEtag())
+                .lastModified(version.lastModifiedMillis())
+                .body(menuItems);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MenuItemDTO> getMenuItemById(@PathVariable Long id) {
+    public ResponseEntity<MenuItemDTO> getMenuItemById(@PathVariable Long id, WebRequest request) {
+        Optional<ResourceVersion> version = menuItemService.getMenuItemVersion(id);
+        if (version.isPresent()
+                && request.checkNotModified(version.get().getEtag(), version.get().lastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(menuItemService.getMenuItemById(id));
     }
 
@@ -33,6 +60,22 @@ public class MenuItemController {
                 .body(menuItemService.createMenuItem(menuItemDTO));
     }
 
+    @PostMapping(value = "/restaurant/{restaurantId}/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO> bulkImportJson(
+            @PathVariable Long restaurantId,
+            InputStream body) throws IOException {
+        BulkImportResultDTO result = menuImportService.importJson(restaurantId, body);
+        // Chunks before the malformed part are already committed, so the report goes out with the 400
+        return ResponseEntity.status(result.isAborted() ? HttpStatus.BAD_REQUEST : HttpStatus.OK).body(result);
+    }
+
+    @PostMapping(value = "/restaurant/{restaurantId}/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO> bulkImportCsv(
+            @PathVariable Long restaurantId,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(menuImportService.importCsv(restaurantId, body));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MenuItemDTO> updateMenuItem(
             @PathVariable Long id,
@@ -1,17 +1,43 @@
 package com.foodiego.controller;
 
+import com.foodiego.dto.BulkOrderStatusRequest;
+import com.foodiego.dto.BulkOrderStatusResultDTO;
 import com.foodiego.dto.CreateOrderRequest;
+import com.foodiego.dto.CursorPage;
+import com.foodiego.dto.DeliveryEstimateDTO;
+import com.foodiego.dto.IngestionStatsDTO;
+import com.foodiego.dto.OrderAcceptedDTO;
 import com.foodiego.dto.OrderDTO;
+import com.foodiego.dto.OrderFilter;
+import com.foodiego.dto.OrderIngestionStatusDTO;
+import com.foodiego.dto.ResourceVersion;
 import com.foodiego.dto.UpdateOrderStatusRequest;
 import com.foodiego.model.Order.OrderStatus;
+import com.foodiego.service.ActiveOrderBoardService;
+import com.foodiego.service.DeliveryEstimateService;
+import com.foodiego.service.IdempotencyService;
+import com.foodiego.service.OrderExportService;
+import com.foodiego.service.OrderIngestionService;
 import com.foodiego.service.OrderService;
+import com.foodiego.service.OrderStreamService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -21,44 +47,183 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final ActiveOrderBoardService activeOrderBoardService;
+    private final IdempotencyService idempotencyService;
+    private final OrderStreamService orderStreamService;
+    private final OrderExportService orderExportService;
+    private final OrderIngestionService orderIngestionService;
+    private final DeliveryEstimateService deliveryEstimateService;
 
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<CursorPage<OrderDTO>> getAllOrders(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeHistory) {
+        return ResponseEntity.ok(orderService.getOrders(
+                new OrderFilter(restaurantId, status, from, to), cursor, size, includeHistory));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean includeHistory,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        OrderExportService.Format exportFormat = OrderExportService.Format.parse(format);
+        OrderFilter filter = new OrderFilter(restaurantId, status, from, to);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    orderExportService.export(filter, includeHistory, exportFormat, gzipOut);
+                }
+            } else {
+                orderExportService.export(filter, includeHistory, exportFormat, out);
+            }
+        });
     }
 
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByRestaurant(@PathVariable Long restaurantId) {
-        return ResponseEntity.ok(orderService.getOrdersByRestaurant(restaurantId));
+    public ResponseEntity<CursorPage<OrderDTO>> getOrdersByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeHistory) {
+        return ResponseEntity.ok(orderService.getOrders(
+                new OrderFilter(restaurantId, status, from, to), cursor, size, includeHistory));
+    }
+
+    @GetMapping("/restaurant/{restaurantId}/active")
+    public ResponseEntity<List<OrderDTO>> getActiveOrdersByRestaurant(@PathVariable Long restaurantId) {
+        return ResponseEntity.ok(activeOrderBoardService.getActiveOrders(restaurantId).stream()
+                .map(deliveryEstimateService::withEstimate)
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping(value = "/restaurant/{restaurantId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrdersByRestaurant(
+            @PathVariable Long restaurantId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return orderStreamService.subscribe(restaurantId, lastEventId);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<OrderDTO>> getOrdersByStatus(@PathVariable OrderStatus status) {
-        return ResponseEntity.ok(orderService.getOrdersByStatus(status));
+    public ResponseEntity<CursorPage<OrderDTO>> getOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeHistory) {
+        return ResponseEntity.ok(orderService.getOrders(
+                new OrderFilter(restaurantId, status, from, to), cursor, size, includeHistory));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.getOrderById(id));
+    public ResponseEntity<OrderDTO> getOrderById(
+            @PathVariable Long id, @RequestParam(defaultValue = "false") boolean includeHistory, WebRequest request) {
+        if (notModified(request, orderService.getOrderHeader(id).orElse(null))) {
+            return null;
+        }
+        return ResponseEntity.ok(deliveryEstimateService.withEstimate(orderService.getOrderById(id, includeHistory)));
     }
 
     @GetMapping("/number/{orderNumber}")
-    public ResponseEntity<OrderDTO> getOrderByOrderNumber(@PathVariable String orderNumber) {
-        return ResponseEntity.ok(orderService.getOrderByOrderNumber(orderNumber));
+    public ResponseEntity<OrderDTO> getOrderByOrderNumber(
+            @PathVariable String orderNumber, @RequestParam(defaultValue = "false") boolean includeHistory, WebRequest request) {
+        if (notModified(request, orderService.getOrderHeaderByNumber(orderNumber).orElse(null))) {
+            return null;
+        }
+        return ResponseEntity.ok(deliveryEstimateService.withEstimate(
+                orderService.getOrderByOrderNumber(orderNumber, includeHistory)));
     }
 
     @PostMapping
-    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<OrderDTO> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(deliveryEstimateService.withEstimate(orderService.createOrder(request)));
+        }
+
+        IdempotencyService.Result<OrderDTO> result = idempotencyService.execute(
+                "orders", idempotencyKey, request, OrderDTO.class, () -> orderService.createOrder(request));
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(orderService.createOrder(request));
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(deliveryEstimateService.withEstimate(result.response()));
+    }
+
+    /**
+     * Queues the order and answers 202 with a status URL. At most once: an accepted order that is
+     * still queued when the instance dies is lost, and its status URL then answers 404. Resubmit it
+     * under a new Idempotency-Key, because the old key replays the original 202.
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderAcceptedDTO> submitOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        OrderAcceptedDTO accepted;
+        boolean replayed = false;
+        if (idempotencyKey == null) {
+            accepted = orderIngestionService.submit(request);
+        } else {
+            IdempotencyService.Result<OrderAcceptedDTO> result = idempotencyService.executeNonTransactional(
+                    "orders-async", idempotencyKey, request, OrderAcceptedDTO.class,
+                    () -> orderIngestionService.submit(request));
+            accepted = result.response();
+            replayed = result.replayed();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create(accepted.getStatusUrl()))
+                .header("Idempotent-Replayed", String.valueOf(replayed))
+                .body(accepted);
+    }
+
+    @GetMapping("/ingestion/stats")
+    public ResponseEntity<IngestionStatsDTO> getIngestionStats() {
+        return ResponseEntity.ok(orderIngestionService.getStats());
+    }
+
+    @GetMapping("/ingestion/{orderNumber}")
+    public ResponseEntity<OrderIngestionStatusDTO> getIngestionStatus(@PathVariable String orderNumber) {
+        return ResponseEntity.ok(orderIngestionService.getStatus(orderNumber));
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<OrderDTO> updateOrderStatus(
             @PathVariable Long id,
             @Valid @RequestBody UpdateOrderStatusRequest request) {
-        return ResponseEntity.ok(orderService.updateOrderStatus(id, request.getStatus()));
+        return ResponseEntity.ok(orderService.updateOrderStatus(id, request.getStatus(), request.getExpectedVersion()));
+    }
+
+    @PatchMapping("/status")
+    public ResponseEntity<BulkOrderStatusResultDTO> updateOrderStatuses(
+            @Valid @RequestBody BulkOrderStatusRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getStatus(), request.getOrders()));
     }
 
     @DeleteMapping("/{id}")
@@ -66,4 +231,25 @@ public class OrderController {
         orderService.deleteOrder(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Answers 304 from a single-row header lookup before any order graph is loaded. The delivery
+    // estimate moves with the kitchen queue rather than the order row, so it is folded into the
+    // ETag and Last-Modified is left out, which would otherwise validate a stale estimate.
+    private boolean notModified(WebRequest request, OrderDTO header) {
+        if (header == null) {
+            return false;
+        }
+        ResourceVersion version = ResourceVersion.of("order", header.getId(), header.getUpdatedAt());
+        DeliveryEstimateDTO estimate = deliveryEstimateService.withEstimate(header).getDeliveryEstimate();
+        if (estimate == null) {
+            return request.checkNotModified(version.getEtag(), version.lastModifiedMillis());
+        }
+        version = version.withVariant(toEpochMinute(estimate.getEstimatedReadyAt()) + "-"
+                + toEpochMinute(estimate.getEstimatedCompletedAt()));
+        return request.checkNotModified(version.getEtag());
+    }
+
+    private static String toEpochMinute(LocalDateTime time) {
+        return Long.toHexString(time.atZone(ZoneId.systemDefault()).toEpochSecond() / 60);
+    }
 }
@@ -0,0 +1,22 @@
+package com.foodiego.controller;
+
+import com.foodiego.dto.OutboxStatsDTO;
+import com.foodiego.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/outbox")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final OutboxService outboxService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<OutboxStatsDTO> getStats() {
+        return ResponseEntity.ok(outboxService.getStats());
+    }
+}
@@ -1,14 +1,32 @@
 package com.foodiego.controller;
 
+import com.foodiego.dto.CursorPage;
+import com.foodiego.dto.DeliveryEstimateDTO;
+import com.foodiego.dto.FacetSearchDTO;
+import com.foodiego.dto.NearbyRestaurantDTO;
+import com.foodiego.dto.ResourceVersion;
+import com.foodiego.dto.RestaurantDeletionStatusDTO;
 import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.service.DeliveryEstimateService;
+import com.foodiego.service.FacetService;
+import com.foodiego.service.MenuSnapshotService;
+import com.foodiego.service.NearbyRestaurantService;
+import com.foodiego.service.RestaurantDeletionService;
 import com.foodiego.service.RestaurantService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/restaurants")
@@ -16,20 +34,85 @@ import java.util.List;
 public class RestaurantController {
 
     private final RestaurantService restaurantService;
+    private final NearbyRestaurantService nearbyRestaurantService;
+    private final FacetService facetService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final DeliveryEstimateService deliveryEstimateService;
+    private final RestaurantDeletionService restaurantDeletionService;
 
     @GetMapping
-    public ResponseEntity<List<RestaurantDTO>> getAllRestaurants() {
-        return ResponseEntity.ok(restaurantService.getAllRestaurants());
+    public ResponseEntity<CursorPage<RestaurantDTO>> getRestaurants(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        CursorPage<RestaurantDTO> page = restaurantService.getRestaurants(cursor, size);
+        return ResponseEntity.ok(new CursorPage<>(
+                page.getContent().stream().map(deliveryEstimateService::withEstimate).collect(Collectors.toList()),
+                page.getNextCursor(), page.isHasMore()));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyRestaurantDTO>> getNearbyRestaurants(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radius,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(nearbyRestaurantService.findNearby(lat, lng, radius, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetSearchDTO> searchByFacets(
+            @RequestParam(required = false) List<String> cuisine,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) Boolean open,
+            @RequestParam(required = false) Boolean vegetarian,
+            @RequestParam(required = false) List<String> feeBand,
+            @RequestParam(defaultValue = "20") int limit) {
+        Map<String, List<String>> filters = new HashMap<>();
+        filters.put(FacetService.CUISINE, cuisine);
+        filters.put(FacetService.CATEGORY, category);
+        filters.put(FacetService.OPEN, open != null ? List.of(open.toString()) : null);
+        filters.put(FacetService.VEGETARIAN, vegetarian != null ? List.of(vegetarian.toString()) : null);
+        filters.put(FacetService.FEE_BAND, feeBand);
+        return ResponseEntity.ok(facetService.search(filters, limit));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<RestaurantDTO> getRestaurantById(@PathVariable Long id) {
-        return ResponseEntity.ok(restaurantService.getRestaurantById(id));
+        RestaurantDTO restaurant = deliveryEstimateService.withEstimate(restaurantService.getRestaurantById(id));
+        ResourceVersion version = ResourceVersion.of("restaurant", id, restaurant.getUpdatedAt());
+        DeliveryEstimateDTO estimate = restaurant.getDeliveryEstimate();
+        if (estimate != null) {
+            version = version.withVariant(estimate.getMinMinutes() + "-" + estimate.getMaxMinutes());
+        }
+        return ResponseEntity.ok()
+                .eTag(version.getEtag())
+                .lastModified(version.lastModifiedMillis())
+                .body(restaurant);
+    }
+
+    @GetMapping(value = "/{id}/menu", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getRestaurantMenu(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        MenuSnapshotService.MenuSnapshot snapshot = menuSnapshotService.getSnapshot(id);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (request.checkNotModified(gzip ? snapshot.gzipEtag() : snapshot.etag())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
     }
 
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<RestaurantDTO> getRestaurantByOwnerId(@PathVariable Long ownerId) {
-        return ResponseEntity.ok(restaurantService.getRestaurantByOwnerId(ownerId));
+        return ResponseEntity.ok(deliveryEstimateService.withEstimate(restaurantService.getRestaurantByOwnerId(ownerId)));
     }
 
     @PostMapping
@@ -48,8 +131,15 @@ public class RestaurantController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteRestaurant(@PathVariable Long id) {
+    public ResponseEntity<RestaurantDeletionStatusDTO> deleteRestaurant(@PathVariable Long id) {
         restaurantService.deleteRestaurant(id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/restaurants/" + id + "/deletion"))
+                .body(restaurantDeletionService.getStatus(id));
+    }
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<RestaurantDeletionStatusDTO> getDeletionStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(restaurantDeletionService.getStatus(id));
     }
 }
@@ -0,0 +1,32 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResultDTO {
+
+    private int received;
+    private int created;
+    private int updated;
+    private int committed;
+    private int failed;
+    private boolean aborted;
+    private String abortReason;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String name;
+        private String message;
+    }
+}
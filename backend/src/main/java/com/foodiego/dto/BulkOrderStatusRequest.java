@@ -0,0 +1,36 @@
+package com.foodiego.dto;
+
+import com.foodiego.model.Order.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusRequest {
+
+    @NotNull
+    private OrderStatus status;
+
+    @NotEmpty
+    @Size(max = 200)
+    @Valid
+    private List<OrderRef> orders;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OrderRef {
+        @NotNull
+        private Long id;
+
+        private Long expectedVersion;
+    }
+}
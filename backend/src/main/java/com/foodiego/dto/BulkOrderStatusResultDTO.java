@@ -0,0 +1,28 @@
+package com.foodiego.dto;
+
+import com.foodiego.model.Order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusResultDTO {
+
+    private List<OrderDTO> updated = new ArrayList<>();
+    private List<Conflict> conflicts = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Conflict {
+        private Long orderId;
+        private OrderStatus currentStatus;
+        private Long currentVersion;
+        private String message;
+    }
+}
@@ -0,0 +1,53 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * All amounts are integer minor units (bani) so the client never re-derives totals with floating point.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartQuoteDTO {
+
+    private Long restaurantId;
+    private String restaurantName;
+    private boolean restaurantOpen;
+    private List<LineQuote> lines;
+    private List<UnavailableItem> unavailableItems;
+    private long subtotalCents;
+    private long deliveryFeeCents;
+    private long totalCents;
+    private long minOrderCents;
+    private long minOrderShortfallCents;
+    private boolean orderable;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineQuote {
+        private Long menuItemId;
+        private String name;
+        private int quantity;
+        private long unitPriceCents;
+        private long lineTotalCents;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UnavailableItem {
+        private Long menuItemId;
+        private String name;
+        private Reason reason;
+    }
+
+    public enum Reason {
+        NOT_FOUND,
+        UNAVAILABLE
+    }
+}
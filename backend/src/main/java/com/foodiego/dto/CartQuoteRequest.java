@@ -0,0 +1,34 @@
+package com.foodiego.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartQuoteRequest {
+
+    @NotNull
+    private Long restaurantId;
+
+    @Valid
+    @NotNull
+    private List<Line> items = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        @NotNull
+        private Long menuItemId;
+
+        @NotNull
+        private Integer quantity;
+    }
+}
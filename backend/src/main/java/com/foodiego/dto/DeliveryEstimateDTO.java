@@ -0,0 +1,28 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data-driven ETA derived from the restaurant's recent kitchen timings and its current queue.
+ * The absolute timestamps are only set on orders that are still in progress.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryEstimateDTO {
+
+    private int prepMinutes;
+    private int prepMinutesP90;
+    private int handoffMinutes;
+    private int minMinutes;
+    private int maxMinutes;
+    private int activeOrders;
+    private double loadFactor;
+    private long samples;
+    private LocalDateTime estimatedReadyAt;
+    private LocalDateTime estimatedCompletedAt;
+}
@@ -0,0 +1,18 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetSearchDTO {
+
+    private int total;
+    private List<RestaurantDTO> restaurants;
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,23 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionStatsDTO {
+
+    private boolean enabled;
+    private String rejectionPolicy;
+    private int queueDepth;
+    private int queueCapacity;
+    private long accepted;
+    private long rejected;
+    private long persisted;
+    private long failed;
+    private long batches;
+    private double averageBatchSize;
+    private long lastBatchMillis;
+}
@@ -0,0 +1,14 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAcceptedDTO {
+
+    private String orderNumber;
+    private String statusUrl;
+}
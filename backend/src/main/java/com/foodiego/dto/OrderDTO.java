@@ -19,6 +19,7 @@ public class OrderDTO {
     private String restaurantName;
     private Double total;
     private OrderStatus status;
+    private Long version;
     private String customerName;
     private String customerPhone;
     private String customerAddress;
@@ -26,4 +27,5 @@ public class OrderDTO {
     private List<OrderItemDTO> items;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private DeliveryEstimateDTO deliveryEstimate;
 }
@@ -0,0 +1,19 @@
+package com.foodiego.dto;
+
+import com.foodiego.model.Order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderFilter {
+
+    private Long restaurantId;
+    private OrderStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
@@ -0,0 +1,22 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIngestionStatusDTO {
+
+    public enum State {
+        QUEUED,
+        PERSISTED,
+        FAILED
+    }
+
+    private String orderNumber;
+    private State state;
+    private Long orderId;
+    private String error;
+}
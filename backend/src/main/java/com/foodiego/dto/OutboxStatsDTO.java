@@ -0,0 +1,49 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStatsDTO {
+
+    private boolean relayEnabled;
+    private long pendingInOutbox;
+    private long relayedTotal;
+    private long deliveredTotal;
+    private long relayRuns;
+    private int lastRunRelayed;
+    private long lastRunMillis;
+    private double lastRunEventsPerSecond;
+    private double peakEventsPerSecond;
+    private LocalDateTime lastRunAt;
+    private List<PartitionStats> partitions;
+    private List<ConsumerStats> consumers;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PartitionStats {
+        private int partition;
+        private long firstOffset;
+        private long nextOffset;
+        private long depth;
+        private int capacity;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConsumerStats {
+        private String name;
+        private long[] offsets;
+        private long lag;
+        private long delivered;
+        private long failures;
+    }
+}
@@ -0,0 +1,44 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Data
+@AllArgsConstructor
+public class ResourceVersion {
+
+    private String etag;
+    private LocalDateTime lastModified;
+
+    /**
+     * Strong validator for a single row: changes whenever {@code updatedAt} does.
+     */
+    public static ResourceVersion of(String kind, Object id, LocalDateTime updatedAt) {
+        long stamp = updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        return new ResourceVersion("\"" + kind + "-" + id + "-" + Long.toHexString(stamp) + "\"", updatedAt);
+    }
+
+    /**
+     * Weak validator for a collection, derived from its newest {@code updatedAt} and its size so
+     * that inserts, updates and deletes all change it.
+     */
+    public static ResourceVersion ofCollection(String kind, Object key, LocalDateTime maxUpdatedAt, long count) {
+        long stamp = maxUpdatedAt != null ? maxUpdatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        return new ResourceVersion("W/\"" + kind + "-" + key + "-" + Long.toHexString(stamp) + "-" + count + "\"",
+                maxUpdatedAt);
+    }
+
+    /**
+     * Same resource, different representation: folds derived, time-varying content into the validator.
+     */
+    public ResourceVersion withVariant(Object variant) {
+        return new ResourceVersion(etag.substring(0, etag.length() - 1) + "-" + variant + "\"", lastModified);
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L;
+    }
+}
@@ -23,8 +23,35 @@ public class RestaurantDTO {
     private Double minOrder;
     private Boolean isOpen;
     private String address;
+    private Double latitude;
+    private Double longitude;
+    private Double deliveryRadiusKm;
     private List<String> categories;
     private Long ownerId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private DeliveryEstimateDTO deliveryEstimate;
+
+    public RestaurantDTO(Long id, String name, String image, String cuisine, Double rating, Integer reviewCount,
+                         String deliveryTime, Double deliveryFee, Double minOrder, Boolean isOpen, String address,
+                         Double latitude, Double longitude, Double deliveryRadiusKm,
+                         Long ownerId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.image = image;
+        this.cuisine = cuisine;
+        this.rating = rating;
+        this.reviewCount = reviewCount;
+        this.deliveryTime = deliveryTime;
+        this.deliveryFee = deliveryFee;
+        this.minOrder = minOrder;
+        this.isOpen = isOpen;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.deliveryRadiusKm = deliveryRadiusKm;
+        this.ownerId = ownerId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
 }
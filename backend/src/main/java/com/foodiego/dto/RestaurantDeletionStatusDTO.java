@@ -0,0 +1,40 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantDeletionStatusDTO {
+
+    private Long restaurantId;
+    private Phase phase;
+    private LocalDateTime requestedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private long deletedOrders;
+    private long deletedOrderItems;
+    private long deletedMenuItems;
+    private long deletedStatusTransitions;
+    private long deletedRollups;
+    private long deletedArchivedOrders;
+    private Long remainingOrders;
+    private Long remainingArchivedOrders;
+    private Long remainingMenuItems;
+    private String lastError;
+
+    public enum Phase {
+        QUEUED,
+        DELETING_MENU_ITEMS,
+        DELETING_ORDERS,
+        DELETING_STATUS_TRANSITIONS,
+        DELETING_ROLLUPS,
+        DELETING_ARCHIVED_ORDERS,
+        DELETING_RESTAURANT,
+        COMPLETED
+    }
+}
@@ -0,0 +1,16 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantMenuDTO {
+
+    private RestaurantDTO restaurant;
+    private List<MenuCategoryDTO> categories;
+}
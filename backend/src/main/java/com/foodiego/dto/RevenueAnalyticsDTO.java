@@ -0,0 +1,22 @@
+package com.foodiego.dto;
+
+import com.foodiego.model.OrderRollup.Granularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueAnalyticsDTO {
+
+    private Long restaurantId;
+    private Granularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private RevenueBucketDTO totals;
+    private List<RevenueBucketDTO> buckets;
+}
@@ -0,0 +1,22 @@
+package com.foodiego.dto;
+
+import com.foodiego.model.Order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueBucketDTO {
+
+    private LocalDateTime bucketStart;
+    private long orderCount;
+    private Map<OrderStatus, Long> statusCounts;
+    private double grossTotal;
+    private double revenue;
+    private double averageBasket;
+}
@@ -0,0 +1,17 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponseDTO {
+
+    private String query;
+    private List<SearchResultDTO> restaurants;
+    private List<SearchResultDTO> menuItems;
+}
@@ -0,0 +1,18 @@
+package com.foodiego.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+
+    private Long id;
+    private Long restaurantId;
+    private String name;
+    private String subtitle;
+    private String image;
+    private double score;
+}
@@ -13,4 +13,6 @@ public class UpdateOrderStatusRequest {
 
     @NotNull
     private OrderStatus status;
+
+    private Long expectedVersion;
 }
@@ -0,0 +1,22 @@
+package com.foodiego.event;
+
+import com.foodiego.dto.MenuItemDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@code MenuItemService} on every menu write; {@code menuItem} is null for deletions.
+ * Bulk imports publish {@link MenuItemsImportedEvent} instead.
+ */
+@Getter
+@AllArgsConstructor
+public class MenuItemChangedEvent {
+
+    private final Long menuItemId;
+    private final Long restaurantId;
+    private final MenuItemDTO menuItem;
+
+    public boolean isDeleted() {
+        return menuItem == null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.foodiego.event;
+
+import com.foodiego.dto.MenuItemDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published by {@code MenuImportService} once per committed import chunk in place of one
+ * {@link MenuItemChangedEvent} per row, so read models can apply the whole chunk in one update.
+ */
+@Getter
+@AllArgsConstructor
+public class MenuItemsImportedEvent {
+
+    private final Long restaurantId;
+    private final List<MenuItemDTO> menuItems;
+}
@@ -0,0 +1,28 @@
+package com.foodiego.event;
+
+import com.foodiego.dto.OrderDTO;
+import com.foodiego.model.Order.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@code OrderService} on every order write. {@code order} is the state after the
+ * change, or the last state before removal for deletions; {@code previousStatus} is null for
+ * creations.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderChangedEvent {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long orderId;
+    private final Long restaurantId;
+    private final OrderStatus previousStatus;
+    private final OrderDTO order;
+}
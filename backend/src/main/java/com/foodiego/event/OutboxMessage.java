@@ -0,0 +1,19 @@
+package com.foodiego.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed change as relayed from {@code outbox_events}. {@code outboxId} is stable across
+ * redeliveries, so consumers that need exactly-once effects can deduplicate on it.
+ */
+public record OutboxMessage(long outboxId,
+                            String aggregateType,
+                            String aggregateId,
+                            String eventType,
+                            String payload,
+                            LocalDateTime createdAt) {
+
+    public String aggregateKey() {
+        return aggregateType + ":" + aggregateId;
+    }
+}
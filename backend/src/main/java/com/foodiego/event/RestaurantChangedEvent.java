@@ -0,0 +1,21 @@
+package com.foodiego.event;
+
+import com.foodiego.dto.RestaurantDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@code RestaurantService} on every catalog write. Listeners that maintain
+ * in-memory read models subscribe after commit; {@code restaurant} is null for deletions.
+ */
+@Getter
+@AllArgsConstructor
+public class RestaurantChangedEvent {
+
+    private final Long restaurantId;
+    private final RestaurantDTO restaurant;
+
+    public boolean isDeleted() {
+        return restaurant == null;
+    }
+}
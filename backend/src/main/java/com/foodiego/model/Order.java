@@ -8,16 +8,24 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_id", columnList = "createdAt DESC, id DESC"),
+        @Index(name = "idx_orders_restaurant_created_id", columnList = "restaurant_id, createdAt DESC, id DESC"),
+        @Index(name = "idx_orders_status_created_id", columnList = "status, createdAt DESC, id DESC"),
+        @Index(name = "idx_orders_restaurant_status_created_id", columnList = "restaurant_id, status, createdAt DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,7 +33,8 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -60,7 +69,14 @@ public class Order {
     @Column(length = 1000)
     private String notes;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
+    // Safety net for reads outside the repository fetch plans: items of up to 100 loaded orders
+    // are initialized together with one IN query instead of one query per order
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<OrderItem> items = new ArrayList<>();
 
     @CreatedDate
@@ -86,6 +102,26 @@ public class Order {
         PREPARING,
         READY,
         COMPLETED,
-        CANCELLED
+        CANCELLED;
+
+        public boolean canTransitionTo(OrderStatus target) {
+            return switch (this) {
+                case PENDING -> target == CONFIRMED || target == CANCELLED;
+                case CONFIRMED -> target == PREPARING || target == CANCELLED;
+                case PREPARING -> target == READY || target == CANCELLED;
+                case READY -> target == COMPLETED || target == CANCELLED;
+                case COMPLETED, CANCELLED -> false;
+            };
+        }
+
+        public static Set<OrderStatus> predecessorsOf(OrderStatus target) {
+            Set<OrderStatus> predecessors = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus status : values()) {
+                if (status.canTransitionTo(target)) {
+                    predecessors.add(status);
+                }
+            }
+            return predecessors;
+        }
     }
 }
@@ -16,7 +16,8 @@ import lombok.NoArgsConstructor;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,10 +45,12 @@ public class OrderItem {
 
     private String category;
 
+    // Callers that already hold the menu data fill the snapshot fields themselves, which keeps
+    // the lazy menu item proxy uninitialized
     @PrePersist
     @PreUpdate
     public void syncMenuItemData() {
-        if (menuItem != null) {
+        if (menuItem != null && menuItemName == null) {
             this.menuItemName = menuItem.getName();
             this.menuItemDescription = menuItem.getDescription();
             this.price = menuItem.getPrice();
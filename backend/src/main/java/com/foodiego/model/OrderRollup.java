@@ -0,0 +1,69 @@
+package com.foodiego.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-restaurant hourly and daily aggregates of the orders created in each bucket. Status counts
+ * track the current status of those orders, so a bucket's counts always sum to {@code createdCount}.
+ * Rows are only written through {@code OrderRollupRepository.applyDelta}.
+ */
+@Entity
+@Table(name = "order_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_rollups_bucket", columnNames = {"restaurant_id", "granularity", "bucket_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long createdCount;
+
+    @Column(nullable = false)
+    private long pendingCount;
+
+    @Column(nullable = false)
+    private long confirmedCount;
+
+    @Column(nullable = false)
+    private long preparingCount;
+
+    @Column(nullable = false)
+    private long readyCount;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private long cancelledCount;
+
+    @Column(nullable = false)
+    private double grossTotal;
+
+    @Column(nullable = false)
+    private double revenue;
+
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+}
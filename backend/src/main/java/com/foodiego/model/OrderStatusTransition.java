@@ -0,0 +1,52 @@
+package com.foodiego.model;
+
+import com.foodiego.model.Order.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only timeline of order status changes. Creation is recorded as a transition into
+ * {@code PENDING} with no {@code fromStatus}. There is deliberately no foreign key to {@code orders}
+ * so that the timeline survives archiving.
+ */
+@Entity
+@Table(name = "order_status_transitions", indexes = {
+        @Index(name = "idx_order_status_transitions_order", columnList = "order_id, to_status"),
+        @Index(name = "idx_order_status_transitions_restaurant", columnList = "restaurant_id, to_status, changed_at"),
+        @Index(name = "idx_order_status_transitions_changed", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_status_transitions_seq")
+    @SequenceGenerator(name = "order_status_transitions_seq", sequenceName = "order_status_transitions_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "restaurant_id", nullable = false)
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 16)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 16)
+    private OrderStatus toStatus;
+
+    @Column(name = "order_created_at", nullable = false)
+    private LocalDateTime orderCreatedAt;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -8,6 +8,8 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,11 +19,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "restaurants")
+@Table(name = "restaurants", indexes = {
+        @Index(name = "idx_restaurants_rating_id", columnList = "rating DESC, id ASC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+@SQLRestriction("deleted_at IS NULL")
 public class Restaurant {
 
     @Id
@@ -38,7 +43,9 @@ public class Restaurant {
     @NotBlank
     private String cuisine;
 
+    @NotNull
     @Min(0)
+    @Column(nullable = false)
     private Double rating = 0.0;
 
     private Integer reviewCount = 0;
@@ -59,7 +66,15 @@ public class Restaurant {
     @NotBlank
     private String address;
 
+    private Double latitude;
+
+    private Double longitude;
+
+    @Min(0)
+    private Double deliveryRadiusKm;
+
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "restaurant_categories", joinColumns = @JoinColumn(name = "restaurant_id"))
     @Column(name = "category")
     private List<String> categories = new ArrayList<>();
@@ -83,4 +98,9 @@ public class Restaurant {
 
     @LastModifiedDate
     private LocalDateTime updatedAt;
+
+    // Set when deletion is requested; the row and its children are then removed in the background
+    @Column(name = "deleted_at")
+    @JsonIgnore
+    private LocalDateTime deletedAt;
 }
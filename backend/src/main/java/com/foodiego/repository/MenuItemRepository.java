@@ -1,10 +1,16 @@
 package com.foodiego.repository;
 
 import com.foodiego.model.MenuItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
@@ -18,4 +24,28 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     List<MenuItem> findByRestaurant_IdAndIsPopularTrue(Long restaurantId);
 
     List<MenuItem> findByRestaurant_IdAndIsVegetarianTrue(Long restaurantId);
+
+    List<MenuItem> findByRestaurant_IdAndNameIn(Long restaurantId, Collection<String> names);
+
+    // Joins the restaurant so a soft-deleted one has no menu while its items are still being purged
+    @EntityGraph(attributePaths = "allergens")
+    @Query("SELECT m FROM MenuItem m JOIN m.restaurant r " +
+           "WHERE r.id = :restaurantId AND r.deletedAt IS NULL ORDER BY m.id")
+    List<MenuItem> findMenuWithAllergens(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT m.updatedAt FROM MenuItem m WHERE m.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // The rebuild queries below join the restaurant for the same reason as findMenuWithAllergens
+    @Query("SELECT m FROM MenuItem m JOIN m.restaurant r WHERE r.deletedAt IS NULL")
+    List<MenuItem> findAllOfActiveRestaurants();
+
+    // A NULL available flag counts as available, as in FacetService's incremental updates
+    @Query("SELECT m.id, r.id FROM MenuItem m JOIN m.restaurant r " +
+           "WHERE r.deletedAt IS NULL AND m.isVegetarian = true AND (m.available IS NULL OR m.available = true)")
+    List<Object[]> findAvailableVegetarianItemIds();
+
+    @Query("SELECT m.id, r.id, m.name, m.price, m.available FROM MenuItem m JOIN m.restaurant r " +
+           "WHERE r.deletedAt IS NULL")
+    List<Object[]> findPricingRows();
 }
@@ -0,0 +1,200 @@
+package com.foodiego.repository;
+
+import com.foodiego.dto.OrderDTO;
+import com.foodiego.dto.OrderFilter;
+import com.foodiego.dto.OrderItemDTO;
+import com.foodiego.model.Order.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to {@code orders_archive} and {@code order_items_archive}. Both tables are
+ * range-partitioned by month of the order's creation time and are written only by
+ * {@code OrderArchiveService}, which moves closed orders out of the hot JPA-managed tables.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveRepository {
+
+    private static final String ORDER_COLUMNS = "id, order_number, restaurant_id, total, status, customer_name, " +
+            "customer_phone, customer_address, notes, version, created_at, updated_at";
+
+    private static final String ITEM_COLUMNS = "id, order_id, menu_item_id, menu_item_name, menu_item_description, " +
+            "price, quantity, image, category";
+
+    private static final String ARCHIVED_ORDER_SELECT = "SELECT a.id, a.order_number, a.restaurant_id, " +
+            "r.name AS restaurant_name, a.total, a.status, a.customer_name, a.customer_phone, a.customer_address, " +
+            "a.notes, a.version, a.created_at, a.updated_at " +
+            "FROM orders_archive a LEFT JOIN restaurants r ON r.id = a.restaurant_id ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void createTables() {
+        execute("CREATE TABLE IF NOT EXISTS orders_archive (" +
+                "id bigint NOT NULL, order_number varchar(255) NOT NULL, restaurant_id bigint NOT NULL, " +
+                "total float8 NOT NULL, status varchar(255) NOT NULL, customer_name varchar(255) NOT NULL, " +
+                "customer_phone varchar(255) NOT NULL, customer_address varchar(255) NOT NULL, " +
+                "notes varchar(1000), version bigint NOT NULL DEFAULT 0, created_at timestamp(6) NOT NULL, " +
+                "updated_at timestamp(6), archived_at timestamp(6) NOT NULL DEFAULT now(), " +
+                "PRIMARY KEY (id, created_at)) PARTITION BY RANGE (created_at)");
+        execute("CREATE TABLE IF NOT EXISTS order_items_archive (" +
+                "id bigint NOT NULL, order_id bigint NOT NULL, order_created_at timestamp(6) NOT NULL, " +
+                "menu_item_id bigint, menu_item_name varchar(255), menu_item_description varchar(1000), " +
+                "price float8 NOT NULL, quantity integer NOT NULL, image varchar(255), category varchar(255), " +
+                "PRIMARY KEY (id, order_created_at)) PARTITION BY RANGE (order_created_at)");
+        execute("CREATE INDEX IF NOT EXISTS idx_orders_archive_restaurant ON orders_archive (restaurant_id, created_at DESC, id DESC)");
+        execute("CREATE INDEX IF NOT EXISTS idx_orders_archive_status ON orders_archive (status, created_at DESC, id DESC)");
+        execute("CREATE INDEX IF NOT EXISTS idx_orders_archive_created ON orders_archive (created_at DESC, id DESC)");
+        execute("CREATE INDEX IF NOT EXISTS idx_orders_archive_number ON orders_archive (order_number)");
+        execute("CREATE INDEX IF NOT EXISTS idx_orders_archive_id ON orders_archive (id)");
+        execute("CREATE INDEX IF NOT EXISTS idx_order_items_archive_order ON order_items_archive (order_id)");
+    }
+
+    public void createMonthlyPartitions(LocalDate month) {
+        LocalDate from = month.withDayOfMonth(1);
+        LocalDate to = from.plusMonths(1);
+        String suffix = String.format("_y%04dm%02d", from.getYear(), from.getMonthValue());
+        String bounds = " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        execute("CREATE TABLE IF NOT EXISTS orders_archive" + suffix + " PARTITION OF orders_archive" + bounds);
+        execute("CREATE TABLE IF NOT EXISTS order_items_archive" + suffix + " PARTITION OF order_items_archive" + bounds);
+    }
+
+    /**
+     * Locks the next batch of closed orders created before {@code cutoff}. Rows locked by a concurrent
+     * archiver run are skipped rather than waited on. Orders of soft-deleted restaurants are left to
+     * {@code RestaurantDeletionService}, so the archive never picks up rows it is purging.
+     */
+    public List<Long> lockClosedOrdersBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT o.id FROM orders o JOIN restaurants r ON r.id = o.restaurant_id " +
+                "WHERE o.status IN ('COMPLETED', 'CANCELLED') AND o.created_at < :cutoff AND r.deleted_at IS NULL " +
+                "ORDER BY o.created_at LIMIT :limit FOR UPDATE OF o SKIP LOCKED",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", limit),
+                Long.class);
+    }
+
+    public List<LocalDate> findCreationMonths(Collection<Long> orderIds) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(date_trunc('month', created_at) AS date) FROM orders WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", orderIds),
+                LocalDate.class);
+    }
+
+    public int moveToArchive(Collection<Long> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+        int moved = jdbcTemplate.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ") " +
+                "SELECT " + ORDER_COLUMNS + " FROM orders WHERE id IN (:ids)", params);
+        jdbcTemplate.update("INSERT INTO order_items_archive (order_created_at, " + ITEM_COLUMNS + ") " +
+                "SELECT o.created_at, i." + ITEM_COLUMNS.replace(", ", ", i.") + " " +
+                "FROM order_items i JOIN orders o ON o.id = i.order_id WHERE i.order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", params);
+        return moved;
+    }
+
+    public List<OrderDTO> findPage(OrderFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder clause = new StringBuilder("WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (filter.getRestaurantId() != null) {
+            clause.append(" AND a.restaurant_id = :restaurantId");
+            params.addValue("restaurantId", filter.getRestaurantId());
+        }
+        if (filter.getStatus() != null) {
+            clause.append(" AND a.status = :status");
+            params.addValue("status", filter.getStatus().name());
+        }
+        if (filter.getFrom() != null) {
+            clause.append(" AND a.created_at >= :from");
+            params.addValue("from", Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            clause.append(" AND a.created_at < :to");
+            params.addValue("to", Timestamp.valueOf(filter.getTo()));
+        }
+        if (afterCreatedAt != null) {
+            clause.append(" AND (a.created_at, a.id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", Timestamp.valueOf(afterCreatedAt)).addValue("afterId", afterId);
+        }
+        clause.append(" ORDER BY a.created_at DESC, a.id DESC LIMIT :limit");
+        return findOrders(clause.toString(), params);
+    }
+
+    public Optional<OrderDTO> findById(Long id) {
+        return findOrders("WHERE a.id = :id", new MapSqlParameterSource("id", id)).stream().findFirst();
+    }
+
+    public Optional<OrderDTO> findByOrderNumber(String orderNumber) {
+        return findOrders("WHERE a.order_number = :orderNumber", new MapSqlParameterSource("orderNumber", orderNumber))
+                .stream()
+                .findFirst();
+    }
+
+    private List<OrderDTO> findOrders(String clause, MapSqlParameterSource params) {
+        List<OrderDTO> orders = jdbcTemplate.query(ARCHIVED_ORDER_SELECT + clause, params, ORDER_MAPPER);
+        if (orders.isEmpty()) {
+            return orders;
+        }
+
+        Map<Long, OrderDTO> byId = new HashMap<>();
+        for (OrderDTO order : orders) {
+            order.setItems(new ArrayList<>());
+            byId.put(order.getId(), order);
+        }
+        // The creation-time bounds let the planner prune item partitions outside the loaded orders
+        LocalDateTime from = orders.stream().map(OrderDTO::getCreatedAt).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = orders.stream().map(OrderDTO::getCreatedAt).max(Comparator.naturalOrder()).orElseThrow();
+        jdbcTemplate.query("SELECT " + ITEM_COLUMNS + " FROM order_items_archive " +
+                        "WHERE order_id IN (:ids) AND order_created_at BETWEEN :from AND :to ORDER BY id",
+                new MapSqlParameterSource("ids", byId.keySet())
+                        .addValue("from", Timestamp.valueOf(from))
+                        .addValue("to", Timestamp.valueOf(to)),
+                rs -> {
+                    OrderItemDTO item = new OrderItemDTO();
+                    item.setId(rs.getLong("id"));
+                    item.setMenuItemId(rs.getObject("menu_item_id", Long.class));
+                    item.setName(rs.getString("menu_item_name"));
+                    item.setDescription(rs.getString("menu_item_description"));
+                    item.setPrice(rs.getDouble("price"));
+                    item.setImage(rs.getString("image"));
+                    item.setQuantity(rs.getInt("quantity"));
+                    byId.get(rs.getLong("order_id")).getItems().add(item);
+                });
+        return orders;
+    }
+
+    private void execute(String sql) {
+        jdbcTemplate.getJdbcTemplate().execute(sql);
+    }
+
+    private static final RowMapper<OrderDTO> ORDER_MAPPER = (rs, rowNum) -> {
+        OrderDTO order = new OrderDTO();
+        order.setId(rs.getLong("id"));
+        order.setOrderNumber(rs.getString("order_number"));
+        order.setRestaurantId(rs.getLong("restaurant_id"));
+        order.setRestaurantName(rs.getString("restaurant_name"));
+        order.setTotal(rs.getDouble("total"));
+        order.setStatus(OrderStatus.valueOf(rs.getString("status")));
+        order.setVersion(rs.getLong("version"));
+        order.setCustomerName(rs.getString("customer_name"));
+        order.setCustomerPhone(rs.getString("customer_phone"));
+        order.setCustomerAddress(rs.getString("customer_address"));
+        order.setNotes(rs.getString("notes"));
+        order.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        order.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return order;
+    };
+}
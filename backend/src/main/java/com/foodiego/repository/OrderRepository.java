@@ -1,36 +1,86 @@
 package com.foodiego.repository;
 
 import com.foodiego.model.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
 
+    // Every read that feeds convertToDTO fetches the restaurant (for its name) and the items with the
+    // order; item menu ids are read from the uninitialized menu item proxies without a query
+
+    @Override
+    @EntityGraph(attributePaths = {"restaurant", "items"})
+    Optional<Order> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"restaurant", "items"})
+    List<Order> findAll();
+
+    @EntityGraph(attributePaths = {"restaurant", "items"})
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    @EntityGraph(attributePaths = {"restaurant", "items"})
     List<Order> findByRestaurant_Id(Long restaurantId);
 
+    @EntityGraph(attributePaths = {"restaurant", "items"})
     List<Order> findByRestaurant_IdOrderByCreatedAtDesc(Long restaurantId);
 
+    @EntityGraph(attributePaths = {"restaurant", "items"})
     List<Order> findByRestaurant_IdAndStatus(Long restaurantId, Order.OrderStatus status);
 
+    @EntityGraph(attributePaths = {"restaurant", "items"})
     List<Order> findByStatusOrderByCreatedAtDesc(Order.OrderStatus status);
 
+    @EntityGraph(attributePaths = {"restaurant", "items"})
     @Query("SELECT o FROM Order o WHERE o.restaurant.id = :restaurantId AND o.createdAt >= :startDate")
     List<Order> findRecentOrders(@Param("restaurantId") Long restaurantId,
                                   @Param("startDate") LocalDateTime startDate);
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.restaurant.id = :restaurantId AND o.status = :status")
-    Long countByRestaurantIdAndStatus(@Param("restaurantId") Long restaurantId,
-                                      @Param("status") Order.OrderStatus status);
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.restaurant LEFT JOIN FETCH o.items WHERE o.status IN :statuses")
+    List<Order> findWithItemsByStatusIn(@Param("statuses") Collection<Order.OrderStatus> statuses);
+
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.restaurant LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id, o.status, o.version FROM Order o WHERE o.id = :id")
+    List<Object[]> findStateById(@Param("id") Long id);
+
+    // Locks in id order so two bulk updates over overlapping ids queue up instead of deadlocking
+    @Query(value = "SELECT id, status, version FROM orders WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.version = :version AND o.status IN :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("version") Long version,
+                         @Param("from") Collection<Order.OrderStatus> from,
+                         @Param("status") Order.OrderStatus status,
+                         @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.version = o.version + 1, o.updatedAt = :now " +
+           "WHERE o.id IN :ids AND o.status IN :from")
+    int transitionStatuses(@Param("ids") Collection<Long> ids,
+                           @Param("from") Collection<Order.OrderStatus> from,
+                           @Param("status") Order.OrderStatus status,
+                           @Param("now") LocalDateTime now);
+
+    @Query("SELECT o.id, o.restaurant.id, o.status, o.createdAt, o.updatedAt FROM Order o WHERE o.id = :id")
+    List<Object[]> findHeaderById(@Param("id") Long id);
 
-    @Query("SELECT SUM(o.total) FROM Order o WHERE o.restaurant.id = :restaurantId AND o.status = 'COMPLETED'")
-    Double getTotalRevenue(@Param("restaurantId") Long restaurantId);
+    @Query("SELECT o.id, o.restaurant.id, o.status, o.createdAt, o.updatedAt FROM Order o " +
+           "WHERE o.orderNumber = :orderNumber")
+    List<Object[]> findHeaderByOrderNumber(@Param("orderNumber") String orderNumber);
 }
@@ -0,0 +1,15 @@
+package com.foodiego.repository;
+
+import com.foodiego.dto.OrderFilter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} order ids matching {@code filter}, newest first, strictly after the
+     * keyset position ({@code afterCreatedAt}, {@code afterId}) when one is given.
+     */
+    List<Long> findPageIds(OrderFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
@@ -0,0 +1,50 @@
+package com.foodiego.repository;
+
+import com.foodiego.dto.OrderFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findPageIds(OrderFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        // Only the predicates actually requested are emitted so each shape maps onto one composite index
+        StringBuilder jpql = new StringBuilder("SELECT o.id FROM Order o WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        if (filter.getRestaurantId() != null) {
+            jpql.append(" AND o.restaurant.id = :restaurantId");
+            params.put("restaurantId", filter.getRestaurantId());
+        }
+        if (filter.getStatus() != null) {
+            jpql.append(" AND o.status = :status");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getFrom() != null) {
+            jpql.append(" AND o.createdAt >= :from");
+            params.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            jpql.append(" AND o.createdAt < :to");
+            params.put("to", filter.getTo());
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(" AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.foodiego.repository;
+
+import com.foodiego.model.OrderRollup;
+import com.foodiego.model.OrderRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    @Query("SELECT r FROM OrderRollup r WHERE r.restaurantId = :restaurantId AND r.granularity = :granularity " +
+           "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<OrderRollup> findSeries(@Param("restaurantId") Long restaurantId,
+                                 @Param("granularity") Granularity granularity,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    @Query("SELECT SUM(r.createdCount), SUM(r.pendingCount), SUM(r.confirmedCount), SUM(r.preparingCount), " +
+           "SUM(r.readyCount), SUM(r.completedCount), SUM(r.cancelledCount), SUM(r.grossTotal), SUM(r.revenue) " +
+           "FROM OrderRollup r WHERE r.restaurantId = :restaurantId AND r.granularity = :granularity")
+    List<Object[]> sumByRestaurant(@Param("restaurantId") Long restaurantId,
+                                   @Param("granularity") Granularity granularity);
+
+    // Single-statement upsert: concurrent writers to the same bucket serialize on the row lock
+    // instead of racing a read-modify-write
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (restaurant_id, granularity, bucket_start, created_count, pending_count, " +
+                   "confirmed_count, preparing_count, ready_count, completed_count, cancelled_count, gross_total, revenue) " +
+                   "VALUES (:restaurantId, :granularity, :bucketStart, :created, :pending, :confirmed, :preparing, " +
+                   ":ready, :completed, :cancelled, :grossTotal, :revenue) " +
+                   "ON CONFLICT (restaurant_id, granularity, bucket_start) DO UPDATE SET " +
+                   "created_count = order_rollups.created_count + EXCLUDED.created_count, " +
+                   "pending_count = order_rollups.pending_count + EXCLUDED.pending_count, " +
+                   "confirmed_count = order_rollups.confirmed_count + EXCLUDED.confirmed_count, " +
+                   "preparing_count = order_rollups.preparing_count + EXCLUDED.preparing_count, " +
+                   "ready_count = order_rollups.ready_count + EXCLUDED.ready_count, " +
+                   "completed_count = order_rollups.completed_count + EXCLUDED.completed_count, " +
+                   "cancelled_count = order_rollups.cancelled_count + EXCLUDED.cancelled_count, " +
+                   "gross_total = order_rollups.gross_total + EXCLUDED.gross_total, " +
+                   "revenue = order_rollups.revenue + EXCLUDED.revenue",
+           nativeQuery = true)
+    int applyDelta(@Param("restaurantId") Long restaurantId,
+                   @Param("granularity") String granularity,
+                   @Param("bucketStart") LocalDateTime bucketStart,
+                   @Param("created") long created,
+                   @Param("pending") long pending,
+                   @Param("confirmed") long confirmed,
+                   @Param("preparing") long preparing,
+                   @Param("ready") long ready,
+                   @Param("completed") long completed,
+                   @Param("cancelled") long cancelled,
+                   @Param("grossTotal") double grossTotal,
+                   @Param("revenue") double revenue);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (restaurant_id, granularity, bucket_start, created_count, pending_count, " +
+                   "confirmed_count, preparing_count, ready_count, completed_count, cancelled_count, gross_total, revenue) " +
+                   "SELECT restaurant_id, :granularity, date_trunc(:unit, created_at), COUNT(*), " +
+                   "COUNT(*) FILTER (WHERE status = 'PENDING'), COUNT(*) FILTER (WHERE status = 'CONFIRMED'), " +
+                   "COUNT(*) FILTER (WHERE status = 'PREPARING'), COUNT(*) FILTER (WHERE status = 'READY'), " +
+                   "COUNT(*) FILTER (WHERE status = 'COMPLETED'), COUNT(*) FILTER (WHERE status = 'CANCELLED'), " +
+                   "SUM(total), COALESCE(SUM(total) FILTER (WHERE status = 'COMPLETED'), 0) " +
+                   "FROM (SELECT restaurant_id, status, total, created_at FROM orders " +
+                   "      UNION ALL SELECT restaurant_id, status, total, created_at FROM orders_archive) o " +
+                   "GROUP BY 1, 3 " +
+                   "ON CONFLICT (restaurant_id, granularity, bucket_start) DO NOTHING",
+           nativeQuery = true)
+    int backfill(@Param("granularity") String granularity, @Param("unit") String unit);
+}
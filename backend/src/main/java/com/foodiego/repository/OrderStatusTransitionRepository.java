@@ -0,0 +1,41 @@
+package com.foodiego.repository;
+
+import com.foodiego.model.Order.OrderStatus;
+import com.foodiego.model.OrderStatusTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderStatusTransitionRepository extends JpaRepository<OrderStatusTransition, Long> {
+
+    @Query("SELECT MAX(t.changedAt) FROM OrderStatusTransition t WHERE t.orderId = :orderId AND t.toStatus = :status")
+    Optional<LocalDateTime> findLatestChangedAt(@Param("orderId") Long orderId, @Param("status") OrderStatus status);
+
+    // (restaurantId, orderCreatedAt, readyAt) for every order that reached READY since the cutoff
+    @Query("SELECT t.restaurantId, t.orderCreatedAt, t.changedAt FROM OrderStatusTransition t " +
+           "WHERE t.toStatus = :ready AND t.changedAt >= :since ORDER BY t.changedAt")
+    List<Object[]> findPrepSamplesSince(@Param("since") LocalDateTime since, @Param("ready") OrderStatus ready);
+
+    // (restaurantId, readyAt, completedAt) for every READY -> COMPLETED hand-off since the cutoff
+    @Query("SELECT c.restaurantId, MAX(r.changedAt), c.changedAt FROM OrderStatusTransition c " +
+           "JOIN OrderStatusTransition r ON r.orderId = c.orderId AND r.toStatus = :ready " +
+           "WHERE c.toStatus = :completed AND c.fromStatus = :ready AND c.changedAt >= :since " +
+           "GROUP BY c.id, c.restaurantId, c.changedAt ORDER BY c.changedAt")
+    List<Object[]> findHandoffSamplesSince(@Param("since") LocalDateTime since, @Param("ready") OrderStatus ready,
+                                           @Param("completed") OrderStatus completed);
+
+    // Oldest first in bounded chunks, so a purge never holds row locks on the whole backlog
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM order_status_transitions WHERE id IN (SELECT id FROM order_status_transitions " +
+                   "WHERE changed_at < :cutoff ORDER BY changed_at LIMIT :limit)", nativeQuery = true)
+    int deleteChangedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,111 @@
+package com.foodiego.repository;
+
+import com.foodiego.event.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC access to {@code outbox_events}. Rows are appended inside the writing transaction,
+ * marked {@code relayed_at} and {@code relayed_by} once handed to a node's in-process bus and
+ * {@code delivered_at} once every consumer there has committed past them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    // Arbitrary constant shared by every node so only one relay runs at a time
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void createTable() {
+        execute("CREATE TABLE IF NOT EXISTS outbox_events (" +
+                "id bigserial PRIMARY KEY, aggregate_type varchar(32) NOT NULL, aggregate_id varchar(64) NOT NULL, " +
+                "event_type varchar(64) NOT NULL, payload text, created_at timestamp(6) NOT NULL DEFAULT now(), " +
+                "relayed_at timestamp(6), delivered_at timestamp(6))");
+        execute("ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS relayed_by integer");
+        execute("CREATE INDEX IF NOT EXISTS idx_outbox_events_unrelayed ON outbox_events (id) WHERE relayed_at IS NULL");
+        execute("CREATE INDEX IF NOT EXISTS idx_outbox_events_delivered ON outbox_events (delivered_at) " +
+                "WHERE delivered_at IS NOT NULL");
+    }
+
+    /**
+     * Inserts in one JDBC batch. Ids come from the {@code bigserial} at insert time, which runs just
+     * before commit while the aggregate's row locks are still held, so ids of the same aggregate
+     * are assigned in commit order.
+     */
+    public void insertAll(List<OutboxMessage> messages) {
+        SqlParameterSource[] batch = messages.stream()
+                .map(message -> new MapSqlParameterSource("aggregateType", message.aggregateType())
+                        .addValue("aggregateId", message.aggregateId())
+                        .addValue("eventType", message.eventType())
+                        .addValue("payload", message.payload())
+                        .addValue("createdAt", Timestamp.valueOf(message.createdAt())))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) " +
+                "VALUES (:aggregateType, :aggregateId, :eventType, :payload, :createdAt)", batch);
+    }
+
+    // Transaction-scoped; released automatically at commit or rollback
+    public boolean tryRelayLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", RELAY_LOCK_KEY), Boolean.class));
+    }
+
+    public List<OutboxMessage> findUnrelayed(int limit) {
+        return jdbcTemplate.query("SELECT id, aggregate_type, aggregate_id, event_type, payload, created_at " +
+                "FROM outbox_events WHERE relayed_at IS NULL AND delivered_at IS NULL ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource("limit", limit), MESSAGE_MAPPER);
+    }
+
+    public int markRelayed(Collection<Long> ids, int nodeId) {
+        return jdbcTemplate.update("UPDATE outbox_events SET relayed_at = now(), relayed_by = :nodeId " +
+                "WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids).addValue("nodeId", nodeId));
+    }
+
+    public int markDelivered(Collection<Long> ids) {
+        return jdbcTemplate.update("UPDATE outbox_events SET delivered_at = now() WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    // What this node relayed but never delivered was lost with its previous process's bus; relay it
+    // again. Rows on another node's bus are left alone: that node may still be delivering them
+    public int resetUndelivered(int nodeId) {
+        return jdbcTemplate.update("UPDATE outbox_events SET relayed_at = NULL, relayed_by = NULL " +
+                "WHERE relayed_by = :nodeId AND relayed_at IS NOT NULL AND delivered_at IS NULL",
+                new MapSqlParameterSource("nodeId", nodeId));
+    }
+
+    public int deleteDeliveredBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM outbox_events WHERE id IN (SELECT id FROM outbox_events " +
+                "WHERE delivered_at < :cutoff ORDER BY delivered_at LIMIT :limit)",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", limit));
+    }
+
+    public long countUnrelayed() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events WHERE relayed_at IS NULL",
+                new MapSqlParameterSource(), Long.class);
+        return count != null ? count : 0L;
+    }
+
+    private void execute(String sql) {
+        jdbcTemplate.getJdbcTemplate().execute(sql);
+    }
+
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("aggregate_type"),
+            rs.getString("aggregate_id"),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+}
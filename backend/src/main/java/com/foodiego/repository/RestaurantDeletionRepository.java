@@ -0,0 +1,132 @@
+package com.foodiego.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Set-based JDBC statements behind {@code RestaurantDeletionService}. Children are removed in
+ * bounded chunks of ids locked with {@code SKIP LOCKED}, so each chunk is a short transaction and
+ * nothing is loaded into the persistence context. Every statement is idempotent, which makes the
+ * whole deletion resumable after a crash.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RestaurantDeletionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<Long> findPendingRestaurantIds() {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM restaurants WHERE deleted_at IS NOT NULL ORDER BY deleted_at",
+                new MapSqlParameterSource(), Long.class);
+    }
+
+    public Optional<LocalDateTime> findDeletedAt(Long restaurantId) {
+        return jdbcTemplate.query("SELECT deleted_at FROM restaurants WHERE id = :id",
+                        new MapSqlParameterSource("id", restaurantId),
+                        (rs, rowNum) -> rs.getTimestamp("deleted_at"))
+                .stream()
+                .findFirst()
+                .map(timestamp -> timestamp != null ? timestamp.toLocalDateTime() : null);
+    }
+
+    public boolean exists(Long restaurantId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM restaurants WHERE id = :id)",
+                new MapSqlParameterSource("id", restaurantId), Boolean.class));
+    }
+
+    public List<Long> lockOrderChunk(Long restaurantId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE restaurant_id = :restaurantId ORDER BY id LIMIT :limit " +
+                "FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("restaurantId", restaurantId).addValue("limit", limit),
+                Long.class);
+    }
+
+    /**
+     * Deletes the orders and their items; returns {@code {orders, orderItems}}.
+     */
+    public int[] deleteOrders(Collection<Long> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+        int items = jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:ids)", params);
+        int orders = jdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", params);
+        return new int[] {orders, items};
+    }
+
+    public List<Long> lockMenuItemChunk(Long restaurantId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM menu_items WHERE restaurant_id = :restaurantId ORDER BY id LIMIT :limit " +
+                "FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("restaurantId", restaurantId).addValue("limit", limit),
+                Long.class);
+    }
+
+    public int deleteMenuItems(Collection<Long> menuItemIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", menuItemIds);
+        // Order lines keep their copied name and price, so only the reference is dropped
+        jdbcTemplate.update("UPDATE order_items SET menu_item_id = NULL WHERE menu_item_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM menu_item_allergens WHERE menu_item_id IN (:ids)", params);
+        return jdbcTemplate.update("DELETE FROM menu_items WHERE id IN (:ids)", params);
+    }
+
+    public int deleteTransitionChunk(Long restaurantId, int limit) {
+        return jdbcTemplate.update("DELETE FROM order_status_transitions WHERE id IN (SELECT id FROM " +
+                "order_status_transitions WHERE restaurant_id = :restaurantId LIMIT :limit)",
+                new MapSqlParameterSource("restaurantId", restaurantId).addValue("limit", limit));
+    }
+
+    public int deleteRollupChunk(Long restaurantId, int limit) {
+        return jdbcTemplate.update("DELETE FROM order_rollups WHERE id IN (SELECT id FROM order_rollups " +
+                "WHERE restaurant_id = :restaurantId LIMIT :limit)",
+                new MapSqlParameterSource("restaurantId", restaurantId).addValue("limit", limit));
+    }
+
+    // Archived rows are never updated, so unlike live orders they need no row locks
+    public List<Long> findArchivedOrderChunk(Long restaurantId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM orders_archive WHERE restaurant_id = :restaurantId LIMIT :limit",
+                new MapSqlParameterSource("restaurantId", restaurantId).addValue("limit", limit),
+                Long.class);
+    }
+
+    /**
+     * Deletes archived orders and their items; returns {@code {orders, orderItems}}.
+     */
+    public int[] deleteArchivedOrders(Collection<Long> orderIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+        int items = jdbcTemplate.update("DELETE FROM order_items_archive WHERE order_id IN (:ids)", params);
+        int orders = jdbcTemplate.update("DELETE FROM orders_archive WHERE id IN (:ids)", params);
+        return new int[] {orders, items};
+    }
+
+    public int deleteRestaurant(Long restaurantId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", restaurantId);
+        jdbcTemplate.update("DELETE FROM restaurant_categories WHERE restaurant_id = :id", params);
+        return jdbcTemplate.update("DELETE FROM restaurants WHERE id = :id AND deleted_at IS NOT NULL", params);
+    }
+
+    public long countOrders(Long restaurantId) {
+        return count("SELECT COUNT(*) FROM orders WHERE restaurant_id = :id", restaurantId);
+    }
+
+    public long countArchivedOrders(Long restaurantId) {
+        return count("SELECT COUNT(*) FROM orders_archive WHERE restaurant_id = :id", restaurantId);
+    }
+
+    public long countMenuItems(Long restaurantId) {
+        return count("SELECT COUNT(*) FROM menu_items WHERE restaurant_id = :id", restaurantId);
+    }
+
+    private long count(String sql, Long restaurantId) {
+        Long count = jdbcTemplate.queryForObject(sql, new MapSqlParameterSource("id", restaurantId), Long.class);
+        return count != null ? count : 0L;
+    }
+}
@@ -1,11 +1,14 @@
 package com.foodiego.repository;
 
+import com.foodiego.dto.RestaurantDTO;
 import com.foodiego.model.Restaurant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +29,30 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
     @Query("SELECT r FROM Restaurant r JOIN r.categories c WHERE LOWER(c) = LOWER(:category)")
     List<Restaurant> findByCategory(@Param("category") String category);
+
+    String SUMMARY_SELECT = "SELECT new com.foodiego.dto.RestaurantDTO(" +
+            "r.id, r.name, r.image, r.cuisine, r.rating, r.reviewCount, r.deliveryTime, " +
+            "r.deliveryFee, r.minOrder, r.isOpen, r.address, r.latitude, r.longitude, r.deliveryRadiusKm, " +
+            "o.id, r.createdAt, r.updatedAt) " +
+            "FROM Restaurant r LEFT JOIN r.owner o ";
+
+    @Query(SUMMARY_SELECT + "ORDER BY r.rating DESC, r.id ASC")
+    List<RestaurantDTO> findSummaryFirstPage(Pageable pageable);
+
+    @Query(SUMMARY_SELECT +
+           "WHERE r.rating < :rating OR (r.rating = :rating AND r.id > :id) " +
+           "ORDER BY r.rating DESC, r.id ASC")
+    List<RestaurantDTO> findSummaryPageAfter(@Param("rating") Double rating,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT r.id, r.latitude, r.longitude, r.deliveryRadiusKm, r.isOpen FROM Restaurant r " +
+           "WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<Object[]> findGeoLocations();
+
+    @Query("SELECT r.id, r.name, r.deliveryFee, r.minOrder, r.isOpen FROM Restaurant r")
+    List<Object[]> findPricingRows();
+
+    @Query("SELECT r.id, c FROM Restaurant r JOIN r.categories c WHERE r.id IN :ids")
+    List<Object[]> findCategoriesByRestaurantIds(@Param("ids") Collection<Long> ids);
 }
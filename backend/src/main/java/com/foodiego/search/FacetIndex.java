@@ -0,0 +1,180 @@
+package com.foodiego.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bitmap per (facet, value) over dense document ordinals. Filters are OR-ed within a facet
+ * and AND-ed across facets; counts for each facet are computed against the other facets'
+ * filters so the UI can show how many results each additional choice would give.
+ */
+public class FacetIndex {
+
+    private final Map<String, Map<String, BitSet>> bitmaps = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> ids = new ArrayList<>();
+    private final Map<Long, Map<String, Set<String>>> assignments = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Long id, String facet, Set<String> values) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = ordinals.computeIfAbsent(id, this::allocateOrdinal);
+            Map<String, Set<String>> docFacets = assignments.computeIfAbsent(id, key -> new HashMap<>());
+            Map<String, BitSet> facetBitmaps = bitmaps.computeIfAbsent(facet, key -> new TreeMap<>());
+
+            Set<String> previous = docFacets.put(facet, values);
+            if (previous != null) {
+                previous.forEach(value -> clearBit(facetBitmaps, value, ordinal));
+            }
+            values.forEach(value -> facetBitmaps.computeIfAbsent(value, key -> new BitSet()).set(ordinal));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal == null) {
+                return;
+            }
+            Map<String, Set<String>> docFacets = assignments.remove(id);
+            if (docFacets != null) {
+                docFacets.forEach((facet, values) ->
+                        values.forEach(value -> clearBit(bitmaps.get(facet), value, ordinal)));
+            }
+            live.clear(ordinal);
+            ids.set(ordinal, null);
+            freeOrdinals.push(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(Long id) {
+        lock.readLock().lock();
+        try {
+            return ordinals.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            ordinals.clear();
+            ids.clear();
+            assignments.clear();
+            freeOrdinals.clear();
+            live.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result query(Map<String, ? extends Collection<String>> filters) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> masks = new HashMap<>();
+            filters.forEach((facet, values) -> {
+                if (values != null && !values.isEmpty()) {
+                    masks.put(facet, union(facet, values));
+                }
+            });
+
+            BitSet matches = intersectAll(masks, null);
+            List<Long> matchingIds = new ArrayList<>(matches.cardinality());
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                matchingIds.add(ids.get(i));
+            }
+
+            Map<String, Map<String, Integer>> counts = new TreeMap<>();
+            bitmaps.forEach((facet, values) -> {
+                BitSet base = intersectAll(masks, facet);
+                Map<String, Integer> facetCounts = new TreeMap<>();
+                values.forEach((value, bitmap) -> {
+                    BitSet hits = (BitSet) bitmap.clone();
+                    hits.and(base);
+                    int cardinality = hits.cardinality();
+                    if (cardinality > 0) {
+                        facetCounts.put(value, cardinality);
+                    }
+                });
+                counts.put(facet, facetCounts);
+            });
+
+            return new Result(matchingIds, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet union(String facet, Collection<String> values) {
+        BitSet result = new BitSet();
+        Map<String, BitSet> facetBitmaps = bitmaps.get(facet);
+        if (facetBitmaps != null) {
+            for (String value : values) {
+                BitSet bitmap = facetBitmaps.get(value);
+                if (bitmap != null) {
+                    result.or(bitmap);
+                }
+            }
+        }
+        return result;
+    }
+
+    private BitSet intersectAll(Map<String, BitSet> masks, String excludedFacet) {
+        BitSet result = (BitSet) live.clone();
+        masks.forEach((facet, mask) -> {
+            if (!facet.equals(excludedFacet)) {
+                result.and(mask);
+            }
+        });
+        return result;
+    }
+
+    private int allocateOrdinal(Long id) {
+        int ordinal;
+        if (freeOrdinals.isEmpty()) {
+            ordinal = ids.size();
+            ids.add(id);
+        } else {
+            ordinal = freeOrdinals.pop();
+            ids.set(ordinal, id);
+        }
+        live.set(ordinal);
+        return ordinal;
+    }
+
+    private static void clearBit(Map<String, BitSet> facetBitmaps, String value, int ordinal) {
+        if (facetBitmaps == null) {
+            return;
+        }
+        BitSet bitmap = facetBitmaps.get(value);
+        if (bitmap != null) {
+            bitmap.clear(ordinal);
+            if (bitmap.isEmpty()) {
+                facetBitmaps.remove(value);
+            }
+        }
+    }
+
+    public record Result(List<Long> ids, Map<String, Map<String, Integer>> counts) {
+    }
+}
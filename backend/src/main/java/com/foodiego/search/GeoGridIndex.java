@@ -0,0 +1,139 @@
+package com.foodiego.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-size lat/lng grid over point locations. A radius query only visits the cells that
+ * overlap the query's bounding box, then filters candidates by great-circle distance and
+ * keeps the K nearest in a bounded heap.
+ */
+public class GeoGridIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellSizeDegrees;
+    private final Map<Long, Location> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Location>> cells = new ConcurrentHashMap<>();
+
+    public GeoGridIndex(double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    public synchronized void put(Location location) {
+        remove(location.id());
+        locations.put(location.id(), location);
+        cells.computeIfAbsent(cellKey(location.latitude(), location.longitude()), key -> new ConcurrentHashMap<>())
+                .put(location.id(), location);
+    }
+
+    public synchronized void remove(Long id) {
+        Location previous = locations.remove(id);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(previous.latitude(), previous.longitude());
+        Map<Long, Location> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(id);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        locations.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * Returns up to {@code limit} open locations within {@code radiusKm} of the point whose own
+     * delivery radius (when set) also reaches the point, nearest first.
+     */
+    public List<Hit> nearest(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit <= 0 || locations.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double lngDelta = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        int minRow = row(Math.max(latitude - latDelta, -90.0));
+        int maxRow = row(Math.min(latitude + latDelta, 90.0));
+        int minCol = col(longitude - lngDelta);
+        int maxCol = col(longitude + lngDelta);
+
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(b.distanceKm(), a.distanceKm()));
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                Map<Long, Location> cell = cells.get(pack(r, wrapCol(c)));
+                if (cell == null) {
+                    continue;
+                }
+                for (Location location : cell.values()) {
+                    if (!location.open()) {
+                        continue;
+                    }
+                    double distance = distanceKm(latitude, longitude, location.latitude(), location.longitude());
+                    if (distance > radiusKm
+                            || (location.deliveryRadiusKm() != null && distance > location.deliveryRadiusKm())) {
+                        continue;
+                    }
+                    heap.offer(new Hit(location.id(), distance));
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                }
+            }
+        }
+
+        List<Hit> result = new ArrayList<>(heap);
+        result.sort((a, b) -> Double.compare(a.distanceKm(), b.distanceKm()));
+        return result;
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return pack(row(latitude), wrapCol(col(longitude)));
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellSizeDegrees);
+    }
+
+    private int wrapCol(int col) {
+        int columns = (int) Math.ceil(360.0 / cellSizeDegrees);
+        return Math.floorMod(col, columns);
+    }
+
+    private static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    public record Location(Long id, double latitude, double longitude, Double deliveryRadiusKm, boolean open) {
+    }
+
+    public record Hit(Long id, double distanceKm) {
+    }
+}
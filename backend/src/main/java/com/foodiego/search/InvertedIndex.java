@@ -0,0 +1,162 @@
+package com.foodiego.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted term -> document postings with a forward map so documents can be replaced or
+ * removed incrementally. The term dictionary is sorted, which makes prefix lookups a range scan.
+ * Reads vastly outnumber writes, so a read/write lock is enough.
+ */
+public class InvertedIndex<K> {
+
+    private static final double PREFIX_PENALTY = 0.8;
+
+    private final NavigableMap<String, Map<K, Double>> postings = new TreeMap<>();
+    private final Map<K, Map<String, Double>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(K key, Map<String, Double> termWeights) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+            if (termWeights.isEmpty()) {
+                return;
+            }
+            documents.put(key, termWeights);
+            termWeights.forEach((term, weight) ->
+                    postings.computeIfAbsent(term, t -> new HashMap<>()).put(key, weight));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(K key) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the top {@code limit} documents matching every query term, ranked by the sum of
+     * field weight times IDF. The last term also matches as a prefix to support search-as-you-type.
+     */
+    public List<ScoredKey<K>> search(List<String> terms, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<K, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<K, Double> termScores = scoreTerm(terms.get(i), i == terms.size() - 1);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<K, Double> scoreTerm(String term, boolean allowPrefix) {
+        Map<K, Double> scores = new HashMap<>();
+        Map<String, Map<K, Double>> matches = allowPrefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : singleTerm(term);
+
+        matches.forEach((indexedTerm, docs) -> {
+            double idf = Math.log(1.0 + (double) documents.size() / docs.size());
+            double factor = indexedTerm.equals(term) ? idf : idf * PREFIX_PENALTY;
+            docs.forEach((key, weight) -> scores.merge(key, weight * factor, Math::max));
+        });
+        return scores;
+    }
+
+    private Map<String, Map<K, Double>> singleTerm(String term) {
+        Map<K, Double> docs = postings.get(term);
+        return docs != null ? Map.of(term, docs) : Collections.emptyMap();
+    }
+
+    private Map<K, Double> intersect(Map<K, Double> left, Map<K, Double> right) {
+        Map<K, Double> smaller = left.size() <= right.size() ? left : right;
+        Map<K, Double> larger = smaller == left ? right : left;
+        Map<K, Double> result = new HashMap<>();
+        smaller.forEach((key, score) -> {
+            Double other = larger.get(key);
+            if (other != null) {
+                result.put(key, score + other);
+            }
+        });
+        return result;
+    }
+
+    private List<ScoredKey<K>> topK(Map<K, Double> scores, int limit) {
+        PriorityQueue<ScoredKey<K>> heap = new PriorityQueue<>(limit + 1);
+        scores.forEach((key, score) -> {
+            heap.offer(new ScoredKey<>(key, score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<ScoredKey<K>> result = new ArrayList<>(heap);
+        result.sort(Collections.reverseOrder());
+        return result;
+    }
+
+    private void removeInternal(K key) {
+        Map<String, Double> previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.keySet()) {
+            Map<K, Double> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public record ScoredKey<K>(K key, double score) implements Comparable<ScoredKey<K>> {
+        @Override
+        public int compareTo(ScoredKey<K> other) {
+            return Double.compare(score, other.score);
+        }
+    }
+}
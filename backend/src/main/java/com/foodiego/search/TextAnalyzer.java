@@ -0,0 +1,58 @@
+package com.foodiego.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Lower-cases, strips diacritics, splits on non-alphanumerics and applies a light English
+ * suffix stemmer. The same analysis runs at index and query time so terms line up.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String raw : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!raw.isEmpty()) {
+                tokens.add(stem(raw));
+            }
+        }
+        return tokens;
+    }
+
+    static String stem(String token) {
+        int length = token.length();
+        if (length <= 3) {
+            return token;
+        }
+        if (token.endsWith("ies") && length > 4) {
+            return token.substring(0, length - 3) + "y";
+        }
+        if (token.endsWith("sses") || token.endsWith("shes") || token.endsWith("ches") || token.endsWith("xes")) {
+            return token.substring(0, length - 2);
+        }
+        if (token.endsWith("ing") && length > 5) {
+            return token.substring(0, length - 3);
+        }
+        if (token.endsWith("ed") && length > 4) {
+            return token.substring(0, length - 2);
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, length - 1);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,220 @@
+package com.foodiego.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.exception.ErrorResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for order intake ({@code POST /api/orders} and {@code /api/orders/async}).
+ * Each request draws from three token buckets: the client IP, the authenticated user (taken from
+ * the JWT subject without a user lookup) and the target restaurant. The first empty bucket answers
+ * 429 with {@code Retry-After} before any controller or database work. Buckets live in a bounded
+ * Caffeine table and are dropped after sitting idle, so one-off clients cannot grow it forever.
+ */
+@Component
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final long MAX_BODY_BYTES = 64 * 1024;
+
+    private final JwtUtils jwtUtils;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Limit clientLimit;
+    private final Limit userLimit;
+    private final Limit restaurantLimit;
+    private final Cache<String, TokenBucket> buckets;
+
+    public AdmissionControlFilter(JwtUtils jwtUtils,
+                                  ObjectMapper objectMapper,
+                                  @Value("${admission.enabled:true}") boolean enabled,
+                                  @Value("${admission.client.permits:30}") long clientPermits,
+                                  @Value("${admission.client.period:1m}") Duration clientPeriod,
+                                  @Value("${admission.client.burst:10}") long clientBurst,
+                                  @Value("${admission.user.permits:60}") long userPermits,
+                                  @Value("${admission.user.period:1m}") Duration userPeriod,
+                                  @Value("${admission.user.burst:20}") long userBurst,
+                                  @Value("${admission.restaurant.permits:600}") long restaurantPermits,
+                                  @Value("${admission.restaurant.period:1m}") Duration restaurantPeriod,
+                                  @Value("${admission.restaurant.burst:100}") long restaurantBurst,
+                                  @Value("${admission.max-buckets:100000}") long maxBuckets,
+                                  @Value("${admission.idle-timeout:10m}") Duration idleTimeout) {
+        this.jwtUtils = jwtUtils;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.clientLimit = new Limit("client", clientPermits, clientPeriod, clientBurst);
+        this.userLimit = new Limit("user", userPermits, userPeriod, userBurst);
+        this.restaurantLimit = new Limit("restaurant", restaurantPermits, restaurantPeriod, restaurantBurst);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals("/api/orders") && !path.equals("/api/orders/async");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+
+        if (reject(clientLimit, request.getRemoteAddr(), now, request, response)) {
+            return;
+        }
+
+        String username = authenticatedUsername(request);
+        if (username != null && reject(userLimit, username, now, request, response)) {
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = CachedBodyRequest.wrap(request);
+        if (cachedRequest == null) {
+            writeError(request, response, HttpStatus.PAYLOAD_TOO_LARGE, "Order request body is too large", 0);
+            return;
+        }
+        String restaurantId = restaurantId(cachedRequest.body);
+        if (restaurantId != null && reject(restaurantLimit, restaurantId, now, request, response)) {
+            return;
+        }
+
+        filterChain.doFilter(cachedRequest, response);
+    }
+
+    private boolean reject(Limit limit, String key, long now, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        TokenBucket bucket = buckets.get(limit.name + ":" + key,
+                k -> new TokenBucket(limit.permits, limit.periodNanos, limit.burst, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos == 0) {
+            return false;
+        }
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Order intake limited for {} {}, retry in {}s", limit.name, key, retryAfterSeconds);
+        writeError(request, response, HttpStatus.TOO_MANY_REQUESTS,
+                "Too many orders for this " + limit.name + ", please retry later", retryAfterSeconds);
+        return true;
+    }
+
+    private String authenticatedUsername(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        String token = header.substring(7);
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getUsernameFromJwtToken(token) : null;
+    }
+
+    private String restaurantId(byte[] body) {
+        try {
+            JsonNode restaurantId = objectMapper.readTree(body).get("restaurantId");
+            return restaurantId != null && restaurantId.canConvertToLong() ? restaurantId.asText() : null;
+        } catch (IOException ex) {
+            // Malformed bodies are left for the controller to reject with a proper 400
+            return null;
+        }
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String message, long retryAfterSeconds) throws IOException {
+        response.setStatus(status.value());
+        if (retryAfterSeconds > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(status.value(), message, LocalDateTime.now(), "uri=" + request.getRequestURI()));
+    }
+
+    private record Limit(String name, long permits, long periodNanos, long burst) {
+        Limit(String name, long permits, Duration period, long burst) {
+            this(name, permits, period.toNanos(), burst);
+        }
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        static CachedBodyRequest wrap(HttpServletRequest request) throws IOException {
+            if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = request.getInputStream().readNBytes((int) MAX_BODY_BYTES + 1);
+            return body.length > MAX_BODY_BYTES ? null : new CachedBodyRequest(request, body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
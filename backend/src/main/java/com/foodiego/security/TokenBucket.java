@@ -0,0 +1,39 @@
+package com.foodiego.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket expressed as a generic cell rate algorithm: the whole state is one
+ * "theoretical arrival time" updated by compare-and-set, so concurrent requests never block each
+ * other. Refills at {@code permitsPerPeriod} per {@code periodNanos} and allows bursts of up to
+ * {@code burst} requests.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long permitsPerPeriod, long periodNanos, long burst, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, periodNanos / Math.max(1, permitsPerPeriod));
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns 0 when admitted, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long waitNanos = next - nowNanos - burstToleranceNanos - emissionIntervalNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.OrderDTO;
+import com.foodiego.event.OrderChangedEvent;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.model.Order.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-restaurant kitchen board holding only orders that still need work. Reads never touch the
+ * database: the board is loaded once at startup and then kept current from committed
+ * {@link OrderChangedEvent}s. Orders leave the board as soon as they are completed, cancelled or
+ * deleted.
+ *
+ * <p>Single node only: the events are published in-process, so a board sees the writes made on its
+ * own instance and nothing else. With several instances behind a load balancer each board misses
+ * the others' orders until its next restart, so run one instance or route every board read and
+ * order write for a restaurant to the same node.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveOrderBoardService {
+
+    static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.of(
+            OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.READY);
+
+    private static final Comparator<OrderDTO> NEWEST_FIRST = Comparator
+            .comparing(OrderDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(OrderDTO::getId, Comparator.reverseOrder());
+
+    private final OrderService orderService;
+
+    private final Map<Long, Map<Long, OrderDTO>> boards = new ConcurrentHashMap<>();
+
+    // Set while rebuild() loads: what left the board meanwhile, so the older snapshot cannot put it back
+    private volatile Tombstones tombstones;
+
+    public List<OrderDTO> getActiveOrders(Long restaurantId) {
+        Map<Long, OrderDTO> board = boards.get(restaurantId);
+        if (board == null) {
+            return List.of();
+        }
+        return board.values().stream()
+                .sorted(NEWEST_FIRST)
+                .collect(Collectors.toList());
+    }
+
+    public int countOrders(Long restaurantId, Set<OrderStatus> statuses) {
+        Map<Long, OrderDTO> board = boards.get(restaurantId);
+        if (board == null) {
+            return 0;
+        }
+        return (int) board.values().stream()
+                .filter(order -> statuses.contains(order.getStatus()))
+                .count();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Tombstones removed = new Tombstones(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+        tombstones = removed;
+        try {
+            List<OrderDTO> orders = orderService.getOrdersWithStatusIn(ACTIVE_STATUSES);
+            // Merge rather than replace so writes committed while loading are not rolled back, and skip
+            // what was completed, cancelled or deleted meanwhile: those states are final
+            for (OrderDTO order : orders) {
+                if (removed.covers(order)) {
+                    continue;
+                }
+                upsert(order);
+                // Listeners tombstone before removing, so a removal racing the upsert is seen here
+                if (removed.covers(order)) {
+                    discard(order, removed);
+                }
+            }
+            log.info("Active order board built: {} orders across {} restaurants", orders.size(), boards.size());
+        } finally {
+            tombstones = null;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderDTO order = event.getOrder();
+        if (event.getType() == OrderChangedEvent.Type.DELETED || !ACTIVE_STATUSES.contains(order.getStatus())) {
+            Tombstones removed = tombstones;
+            if (removed != null) {
+                removed.orderIds().add(event.getOrderId());
+            }
+            Map<Long, OrderDTO> board = boards.get(event.getRestaurantId());
+            if (board != null) {
+                board.remove(event.getOrderId());
+            }
+            return;
+        }
+        upsert(order);
+    }
+
+    @TransactionalEventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.isDeleted()) {
+            Tombstones removed = tombstones;
+            if (removed != null) {
+                removed.restaurantIds().add(event.getRestaurantId());
+            }
+            boards.remove(event.getRestaurantId());
+        }
+    }
+
+    private void upsert(OrderDTO order) {
+        boards.computeIfAbsent(order.getRestaurantId(), id -> new ConcurrentHashMap<>())
+                .merge(order.getId(), order, (current, incoming) ->
+                        isNewer(incoming.getUpdatedAt(), current.getUpdatedAt()) ? incoming : current);
+    }
+
+    private void discard(OrderDTO order, Tombstones removed) {
+        if (removed.restaurantIds().contains(order.getRestaurantId())) {
+            boards.remove(order.getRestaurantId());
+            return;
+        }
+        Map<Long, OrderDTO> board = boards.get(order.getRestaurantId());
+        if (board != null) {
+            board.remove(order.getId());
+        }
+    }
+
+    private record Tombstones(Set<Long> orderIds, Set<Long> restaurantIds) {
+
+        boolean covers(OrderDTO order) {
+            return orderIds.contains(order.getId()) || restaurantIds.contains(order.getRestaurantId());
+        }
+    }
+
+    private static boolean isNewer(LocalDateTime incoming, LocalDateTime current) {
+        return current == null || (incoming != null && !incoming.isBefore(current));
+    }
+}
@@ -0,0 +1,82 @@
+package com.foodiego.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.config.CacheConfig;
+import com.foodiego.event.OutboxMessage;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts restaurant and menu cache entries again once their change has been relayed from the outbox.
+ * The services evict inside the writing transaction, so a read that lands between the eviction and
+ * the commit can put the old row back into the cache; this second eviction happens strictly after
+ * the commit and clears it. Evicting is idempotent, so redeliveries are harmless. Only the node that
+ * runs the relay consumes the bus.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationConsumer {
+
+    static final String NAME = "cache-invalidation";
+
+    private final EventBus eventBus;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    // Registered before the relay's first run so no relayed change is trimmed unseen
+    @PostConstruct
+    public void subscribe() {
+        eventBus.subscribe(NAME, this::handle);
+    }
+
+    void handle(List<OutboxMessage> batch) throws Exception {
+        Set<Long> restaurants = new HashSet<>();
+        Set<Long> menus = new HashSet<>();
+        for (OutboxMessage message : batch) {
+            switch (message.aggregateType()) {
+                case "restaurant" -> {
+                    Long restaurantId = Long.valueOf(message.aggregateId());
+                    restaurants.add(restaurantId);
+                    menus.add(restaurantId);
+                }
+                case "menu_item" -> {
+                    Long restaurantId = restaurantIdOf(message);
+                    if (restaurantId != null) {
+                        menus.add(restaurantId);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        evict(CacheConfig.RESTAURANTS, restaurants);
+        evict(CacheConfig.RESTAURANT_MENUS, menus);
+    }
+
+    private Long restaurantIdOf(OutboxMessage message) throws Exception {
+        if (message.payload() == null) {
+            return null;
+        }
+        JsonNode restaurantId = objectMapper.readTree(message.payload()).get("restaurantId");
+        return restaurantId != null && restaurantId.canConvertToLong() ? restaurantId.asLong() : null;
+    }
+
+    private void evict(String cacheName, Set<Long> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || keys.isEmpty()) {
+            return;
+        }
+        keys.forEach(cache::evict);
+        log.debug("Evicted {} {} entries after relay", keys.size(), cacheName);
+    }
+}
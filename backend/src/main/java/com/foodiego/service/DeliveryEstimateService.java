@@ -0,0 +1,288 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.DeliveryEstimateDTO;
+import com.foodiego.dto.OrderDTO;
+import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.event.OrderChangedEvent;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.model.Order.OrderStatus;
+import com.foodiego.model.OrderStatusTransition;
+import com.foodiego.repository.OrderStatusTransitionRepository;
+import com.foodiego.stats.DecayingQuantileSketch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records every order status transition and keeps, per restaurant, decaying quantile sketches of prep
+ * time (PENDING to READY) and hand-off time (READY to COMPLETED). Estimates scale the sketched prep
+ * time by how the current kitchen queue compares with the queue those samples were observed under.
+ * Transitions are only read back to seed the sketches, so rows older than the seed window (plus a
+ * day, so a recent hand-off still finds its READY row) are purged on a schedule.
+ */
+@Service
+@Slf4j
+public class DeliveryEstimateService {
+
+    static final Set<OrderStatus> KITCHEN_STATUSES = EnumSet.of(
+            OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+
+    private static final double MIN_SECONDS = 30;
+    private static final double MAX_SECONDS = Duration.ofHours(4).toSeconds();
+    private static final double MIN_LOAD_FACTOR = 0.75;
+    private static final Duration RETENTION_MARGIN = Duration.ofDays(1);
+    private static final int PURGE_CHUNK = 5000;
+
+    private final OrderStatusTransitionRepository transitionRepository;
+    private final ActiveOrderBoardService activeOrderBoardService;
+    private final Duration halfLife;
+    private final Duration seedWindow;
+    private final double relativeAccuracy;
+    private final int minSamples;
+    private final double queueSmoothing;
+    private final double maxLoadFactor;
+
+    private final Map<Long, Kitchen> kitchens = new ConcurrentHashMap<>();
+
+    public DeliveryEstimateService(OrderStatusTransitionRepository transitionRepository,
+                                   ActiveOrderBoardService activeOrderBoardService,
+                                   @Value("${eta.half-life:6h}") Duration halfLife,
+                                   @Value("${eta.seed-window:7d}") Duration seedWindow,
+                                   @Value("${eta.relative-accuracy:0.05}") double relativeAccuracy,
+                                   @Value("${eta.min-samples:5}") int minSamples,
+                                   @Value("${eta.queue-smoothing:0.1}") double queueSmoothing,
+                                   @Value("${eta.max-load-factor:3.0}") double maxLoadFactor) {
+        this.transitionRepository = transitionRepository;
+        this.activeOrderBoardService = activeOrderBoardService;
+        this.halfLife = halfLife;
+        this.seedWindow = seedWindow;
+        this.relativeAccuracy = relativeAccuracy;
+        this.minSamples = minSamples;
+        this.queueSmoothing = queueSmoothing;
+        this.maxLoadFactor = maxLoadFactor;
+    }
+
+    // Fixed footprint per restaurant: two sketches of ~60 buckets each plus the queue average
+    private final class Kitchen {
+        final DecayingQuantileSketch prep;
+        final DecayingQuantileSketch handoff;
+        double typicalQueue = 1.0;
+
+        Kitchen(long nowMillis) {
+            prep = new DecayingQuantileSketch(MIN_SECONDS, MAX_SECONDS, relativeAccuracy, halfLife, nowMillis);
+            handoff = new DecayingQuantileSketch(MIN_SECONDS, MAX_SECONDS, relativeAccuracy, halfLife, nowMillis);
+        }
+    }
+
+    private record Snapshot(double prepP50, double prepP90, double handoffP50, double handoffP90,
+                            double typicalQueue, long samples) {
+    }
+
+    public RestaurantDTO withEstimate(RestaurantDTO restaurant) {
+        Snapshot snapshot = snapshot(restaurant.getId());
+        if (snapshot == null) {
+            return restaurant;
+        }
+        // Cached DTOs are shared, so the estimate goes on a copy
+        RestaurantDTO copy = new RestaurantDTO();
+        BeanUtils.copyProperties(restaurant, copy);
+        int active = activeOrderBoardService.countOrders(restaurant.getId(), KITCHEN_STATUSES);
+        // Quote for a hypothetical new order joining the back of the queue
+        DeliveryEstimateDTO estimate = estimate(snapshot, active + 1);
+        estimate.setActiveOrders(active);
+        copy.setDeliveryEstimate(estimate);
+        return copy;
+    }
+
+    public OrderDTO withEstimate(OrderDTO order) {
+        boolean inKitchen = KITCHEN_STATUSES.contains(order.getStatus());
+        if (!inKitchen && order.getStatus() != OrderStatus.READY) {
+            return order;
+        }
+        Snapshot snapshot = snapshot(order.getRestaurantId());
+        if (snapshot == null) {
+            return order;
+        }
+        int queue = Math.max(1, activeOrderBoardService.countOrders(order.getRestaurantId(), KITCHEN_STATUSES));
+        DeliveryEstimateDTO estimate = estimate(snapshot, queue);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime readyAt = inKitchen
+                ? latest(now, order.getCreatedAt().plusMinutes(estimate.getPrepMinutes()))
+                : order.getUpdatedAt();
+        estimate.setEstimatedReadyAt(readyAt);
+        estimate.setEstimatedCompletedAt(latest(now, readyAt.plusMinutes(estimate.getHandoffMinutes())));
+
+        OrderDTO copy = new OrderDTO();
+        BeanUtils.copyProperties(order, copy);
+        copy.setDeliveryEstimate(estimate);
+        return copy;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void recordTransition(OrderChangedEvent event) {
+        OrderDTO order = event.getOrder();
+        if (order == null || order.getCreatedAt() == null || event.getType() == OrderChangedEvent.Type.DELETED) {
+            return;
+        }
+        if (event.getType() == OrderChangedEvent.Type.CREATED) {
+            transitionRepository.save(new OrderStatusTransition(null, order.getId(), event.getRestaurantId(),
+                    null, order.getStatus(), order.getCreatedAt(), order.getCreatedAt()));
+        } else if (event.getPreviousStatus() != order.getStatus()) {
+            LocalDateTime changedAt = order.getUpdatedAt() != null ? order.getUpdatedAt() : LocalDateTime.now();
+            transitionRepository.save(new OrderStatusTransition(null, order.getId(), event.getRestaurantId(),
+                    event.getPreviousStatus(), order.getStatus(), order.getCreatedAt(), changedAt));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderDTO order = event.getOrder();
+        if (order == null || order.getCreatedAt() == null || event.getType() == OrderChangedEvent.Type.DELETED) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Kitchen kitchen = kitchens.computeIfAbsent(event.getRestaurantId(), id -> new Kitchen(now));
+
+        if (event.getType() == OrderChangedEvent.Type.CREATED) {
+            int queue = Math.max(1, activeOrderBoardService.countOrders(event.getRestaurantId(), KITCHEN_STATUSES));
+            synchronized (kitchen) {
+                kitchen.typicalQueue += queueSmoothing * (queue - kitchen.typicalQueue);
+            }
+            return;
+        }
+        if (event.getPreviousStatus() == order.getStatus() || order.getUpdatedAt() == null) {
+            return;
+        }
+        if (order.getStatus() == OrderStatus.READY) {
+            addSample(kitchen.prep, kitchen, order.getCreatedAt(), order.getUpdatedAt());
+        } else if (order.getStatus() == OrderStatus.COMPLETED && event.getPreviousStatus() == OrderStatus.READY) {
+            transitionRepository.findLatestChangedAt(order.getId(), OrderStatus.READY)
+                    .ifPresent(readyAt -> addSample(kitchen.handoff, kitchen, readyAt, order.getUpdatedAt()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.isDeleted()) {
+            kitchens.remove(event.getRestaurantId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${eta.purge-interval-ms:3600000}",
+               initialDelayString = "${eta.purge-initial-delay-ms:300000}")
+    public void purgeTransitions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(seedWindow).minus(RETENTION_MARGIN);
+        int purged = 0;
+        try {
+            int deleted;
+            do {
+                deleted = transitionRepository.deleteChangedBefore(cutoff, PURGE_CHUNK);
+                purged += deleted;
+            } while (deleted == PURGE_CHUNK);
+        } catch (DataAccessException ex) {
+            log.warn("Status transition purge stopped after {} rows: {}", purged, ex.getMessage());
+        }
+        if (purged > 0) {
+            log.info("Purged {} order status transitions older than {}", purged, cutoff);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime since = LocalDateTime.now().minus(seedWindow);
+        long now = System.currentTimeMillis();
+        int prepSamples = 0;
+        int handoffSamples = 0;
+        try {
+            for (Object[] row : transitionRepository.findPrepSamplesSince(since, OrderStatus.READY)) {
+                Kitchen kitchen = kitchens.computeIfAbsent((Long) row[0], id -> new Kitchen(now));
+                addSample(kitchen.prep, kitchen, (LocalDateTime) row[1], (LocalDateTime) row[2]);
+                prepSamples++;
+            }
+            for (Object[] row : transitionRepository.findHandoffSamplesSince(since, OrderStatus.READY,
+                    OrderStatus.COMPLETED)) {
+                Kitchen kitchen = kitchens.computeIfAbsent((Long) row[0], id -> new Kitchen(now));
+                addSample(kitchen.handoff, kitchen, (LocalDateTime) row[1], (LocalDateTime) row[2]);
+                handoffSamples++;
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not seed delivery estimates: {}", ex.getMessage());
+        }
+        log.info("Delivery estimates seeded: {} prep and {} hand-off samples across {} restaurants",
+                prepSamples, handoffSamples, kitchens.size());
+    }
+
+    private void addSample(DecayingQuantileSketch sketch, Kitchen kitchen, LocalDateTime start, LocalDateTime end) {
+        double seconds = Duration.between(start, end).toMillis() / 1000.0;
+        if (seconds < 0) {
+            return;
+        }
+        synchronized (kitchen) {
+            sketch.add(seconds, toMillis(end));
+        }
+    }
+
+    private Snapshot snapshot(Long restaurantId) {
+        Kitchen kitchen = kitchens.get(restaurantId);
+        if (kitchen == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (kitchen) {
+            double samples = kitchen.prep.effectiveCount(now);
+            if (samples < minSamples) {
+                return null;
+            }
+            boolean hasHandoff = kitchen.handoff.effectiveCount(now) >= minSamples;
+            return new Snapshot(kitchen.prep.quantile(0.5), kitchen.prep.quantile(0.9),
+                    hasHandoff ? kitchen.handoff.quantile(0.5) : 0, hasHandoff ? kitchen.handoff.quantile(0.9) : 0,
+                    kitchen.typicalQueue, Math.round(samples));
+        }
+    }
+
+    private DeliveryEstimateDTO estimate(Snapshot snapshot, int queue) {
+        double load = Math.min(maxLoadFactor, Math.max(MIN_LOAD_FACTOR, queue / Math.max(1.0, snapshot.typicalQueue())));
+        int prep = toMinutes(snapshot.prepP50() * load);
+        int prepP90 = toMinutes(snapshot.prepP90() * load);
+        int handoff = toMinutes(snapshot.handoffP50());
+        int handoffP90 = toMinutes(snapshot.handoffP90());
+        DeliveryEstimateDTO estimate = new DeliveryEstimateDTO();
+        estimate.setPrepMinutes(prep);
+        estimate.setPrepMinutesP90(prepP90);
+        estimate.setHandoffMinutes(handoff);
+        estimate.setMinMinutes(prep + handoff);
+        estimate.setMaxMinutes(prepP90 + handoffP90);
+        estimate.setActiveOrders(queue);
+        estimate.setLoadFactor(Math.round(load * 100) / 100.0);
+        estimate.setSamples(snapshot.samples());
+        return estimate;
+    }
+
+    private static int toMinutes(double seconds) {
+        return (int) Math.ceil(seconds / 60.0);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,253 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.OutboxStatsDTO;
+import com.foodiego.event.OutboxMessage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * In-process, partitioned log of committed changes fed by the outbox relay. Messages of one aggregate
+ * always land in the same partition, and each subscription drains a partition on at most one thread,
+ * so every consumer sees an aggregate's changes in order. A subscription only advances its offset
+ * after its handler returns; a failing batch is retried after a delay (at-least-once). Entries are
+ * trimmed once every subscription has committed past them, and the relay is told so it can mark them
+ * delivered. A full partition rejects appends, which leaves the rows in the outbox until there is room.
+ */
+@Service
+@Slf4j
+public class EventBus {
+
+    @FunctionalInterface
+    public interface Handler {
+        void handle(List<OutboxMessage> batch) throws Exception;
+    }
+
+    private final int partitionCapacity;
+    private final int maxBatchSize;
+    private final long retryDelayMillis;
+    private final Partition[] partitions;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService workers;
+
+    private volatile Consumer<List<Long>> deliveryListener = ids -> { };
+
+    public EventBus(@Value("${event-bus.partitions:8}") int partitionCount,
+                    @Value("${event-bus.partition-capacity:10000}") int partitionCapacity,
+                    @Value("${event-bus.max-batch-size:100}") int maxBatchSize,
+                    @Value("${event-bus.retry-delay-ms:1000}") long retryDelayMillis,
+                    @Value("${event-bus.worker-threads:4}") int workerThreads) {
+        this.partitionCapacity = partitionCapacity;
+        this.maxBatchSize = maxBatchSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, partitionCapacity);
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newScheduledThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "event-bus-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int partitionOf(String aggregateKey) {
+        return Math.floorMod(aggregateKey.hashCode(), partitions.length);
+    }
+
+    public boolean publish(OutboxMessage message) {
+        Partition partition = partitions[partitionOf(message.aggregateKey())];
+        if (!partition.append(message)) {
+            return false;
+        }
+        if (subscriptions.isEmpty()) {
+            trim(partition);
+        } else {
+            subscriptions.values().forEach(subscription -> subscription.schedule(partition.index));
+        }
+        return true;
+    }
+
+    /**
+     * Registers a consumer under a unique name. It starts at the oldest retained entry of every
+     * partition, so it also receives changes relayed but not yet delivered to the other consumers.
+     */
+    public void subscribe(String name, Handler handler) {
+        Subscription subscription = new Subscription(name, handler);
+        if (subscriptions.putIfAbsent(name, subscription) != null) {
+            throw new IllegalStateException("Event bus consumer already registered: " + name);
+        }
+        for (Partition partition : partitions) {
+            subscription.schedule(partition.index);
+        }
+    }
+
+    public void onDelivered(Consumer<List<Long>> listener) {
+        this.deliveryListener = listener;
+    }
+
+    public List<OutboxStatsDTO.PartitionStats> getPartitionStats() {
+        List<OutboxStatsDTO.PartitionStats> stats = new ArrayList<>(partitions.length);
+        for (Partition partition : partitions) {
+            synchronized (partition) {
+                stats.add(new OutboxStatsDTO.PartitionStats(partition.index, partition.firstOffset,
+                        partition.nextOffset, partition.nextOffset - partition.firstOffset, partitionCapacity));
+            }
+        }
+        return stats;
+    }
+
+    public List<OutboxStatsDTO.ConsumerStats> getConsumerStats() {
+        List<OutboxStatsDTO.ConsumerStats> stats = new ArrayList<>();
+        for (Subscription subscription : subscriptions.values()) {
+            long[] offsets = new long[partitions.length];
+            long lag = 0;
+            for (Partition partition : partitions) {
+                offsets[partition.index] = subscription.offsets.get(partition.index);
+                lag += Math.max(0, partition.nextOffset() - offsets[partition.index]);
+            }
+            stats.add(new OutboxStatsDTO.ConsumerStats(subscription.name, offsets, lag,
+                    subscription.delivered.get(), subscription.failures.get()));
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void trim(Partition partition) {
+        long upTo = Long.MAX_VALUE;
+        for (Subscription subscription : subscriptions.values()) {
+            upTo = Math.min(upTo, subscription.offsets.get(partition.index));
+        }
+        List<Long> delivered = partition.trimTo(upTo);
+        if (!delivered.isEmpty()) {
+            deliveryListener.accept(delivered);
+        }
+    }
+
+    // Fixed-size ring; offsets grow forever and map to slot offset % capacity
+    private static final class Partition {
+        private final int index;
+        private final OutboxMessage[] ring;
+        private long firstOffset;
+        private long nextOffset;
+
+        private Partition(int index, int capacity) {
+            this.index = index;
+            this.ring = new OutboxMessage[capacity];
+        }
+
+        synchronized boolean append(OutboxMessage message) {
+            if (nextOffset - firstOffset >= ring.length) {
+                return false;
+            }
+            ring[(int) (nextOffset % ring.length)] = message;
+            nextOffset++;
+            return true;
+        }
+
+        synchronized List<OutboxMessage> read(long fromOffset, int max) {
+            long start = Math.max(fromOffset, firstOffset);
+            long end = Math.min(nextOffset, start + max);
+            List<OutboxMessage> batch = new ArrayList<>((int) Math.max(0, end - start));
+            for (long offset = start; offset < end; offset++) {
+                batch.add(ring[(int) (offset % ring.length)]);
+            }
+            return batch;
+        }
+
+        synchronized long nextOffset() {
+            return nextOffset;
+        }
+
+        synchronized long firstOffset() {
+            return firstOffset;
+        }
+
+        synchronized List<Long> trimTo(long offset) {
+            long end = Math.min(offset, nextOffset);
+            List<Long> trimmed = new ArrayList<>((int) Math.max(0, end - firstOffset));
+            for (; firstOffset < end; firstOffset++) {
+                int slot = (int) (firstOffset % ring.length);
+                trimmed.add(ring[slot].outboxId());
+                ring[slot] = null;
+            }
+            return trimmed;
+        }
+    }
+
+    private final class Subscription {
+        private final String name;
+        private final Handler handler;
+        // Next offset to consume per partition; written only by the partition's current drainer
+        private final AtomicLongArray offsets;
+        private final AtomicBoolean[] draining;
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+
+        private Subscription(String name, Handler handler) {
+            this.name = name;
+            this.handler = handler;
+            this.offsets = new AtomicLongArray(partitions.length);
+            this.draining = new AtomicBoolean[partitions.length];
+            for (Partition partition : partitions) {
+                offsets.set(partition.index, partition.firstOffset());
+                draining[partition.index] = new AtomicBoolean();
+            }
+        }
+
+        void schedule(int partitionIndex) {
+            if (draining[partitionIndex].compareAndSet(false, true)) {
+                workers.execute(() -> drain(partitionIndex));
+            }
+        }
+
+        private void drain(int partitionIndex) {
+            Partition partition = partitions[partitionIndex];
+            boolean failed = false;
+            try {
+                while (true) {
+                    long from = Math.max(offsets.get(partitionIndex), partition.firstOffset());
+                    List<OutboxMessage> batch = partition.read(from, maxBatchSize);
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    handler.handle(batch);
+                    offsets.set(partitionIndex, from + batch.size());
+                    delivered.addAndGet(batch.size());
+                    trim(partition);
+                }
+            } catch (Exception ex) {
+                failed = true;
+                failures.incrementAndGet();
+                log.warn("Event bus consumer {} failed on partition {}; retrying in {} ms: {}",
+                        name, partitionIndex, retryDelayMillis, ex.getMessage());
+            } finally {
+                draining[partitionIndex].set(false);
+                if (failed) {
+                    workers.schedule(() -> schedule(partitionIndex), retryDelayMillis, TimeUnit.MILLISECONDS);
+                } else if (partition.nextOffset() > offsets.get(partitionIndex)) {
+                    schedule(partitionIndex);
+                }
+            }
+        }
+    }
+}
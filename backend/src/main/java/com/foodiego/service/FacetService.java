@@ -0,0 +1,168 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.FacetSearchDTO;
+import com.foodiego.dto.MenuItemDTO;
+import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.event.MenuItemChangedEvent;
+import com.foodiego.event.MenuItemsImportedEvent;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.exception.ResourceNotFoundException;
+import com.foodiego.model.Restaurant;
+import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.RestaurantRepository;
+import com.foodiego.search.FacetIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FacetService {
+
+    public static final String CUISINE = "cuisine";
+    public static final String CATEGORY = "category";
+    public static final String OPEN = "open";
+    public static final String VEGETARIAN = "vegetarian";
+    public static final String FEE_BAND = "feeBand";
+
+    private static final int MAX_LIMIT = 100;
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantService restaurantService;
+
+    private final FacetIndex index = new FacetIndex();
+    private final Map<Long, Long> vegetarianItems = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> vegetarianCounts = new ConcurrentHashMap<>();
+
+    public FacetSearchDTO search(Map<String, ? extends Collection<String>> filters, int limit) {
+        Map<String, List<String>> normalized = new HashMap<>();
+        filters.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) {
+                normalized.put(facet, values.stream().map(FacetService::normalize).toList());
+            }
+        });
+
+        FacetIndex.Result result = index.query(normalized);
+        List<RestaurantDTO> restaurants = new ArrayList<>();
+        for (Long id : result.ids()) {
+            if (restaurants.size() >= Math.min(limit, MAX_LIMIT)) {
+                break;
+            }
+            try {
+                restaurants.add(restaurantService.getRestaurantById(id));
+            } catch (ResourceNotFoundException ex) {
+                index.remove(id);
+            }
+        }
+        return new FacetSearchDTO(result.ids().size(), restaurants, result.counts());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuildIndex() {
+        index.clear();
+        vegetarianItems.clear();
+        vegetarianCounts.clear();
+
+        for (Object[] row : menuItemRepository.findAvailableVegetarianItemIds()) {
+            vegetarianItems.put((Long) row[0], (Long) row[1]);
+            vegetarianCounts.merge((Long) row[1], 1, Integer::sum);
+        }
+        int indexed = 0;
+        for (Restaurant restaurant : restaurantRepository.findAll()) {
+            indexRestaurant(restaurant.getId(), restaurant.getCuisine(), restaurant.getCategories(),
+                    restaurant.getIsOpen(), restaurant.getDeliveryFee());
+            indexed++;
+        }
+        log.info("Facet index built: {} restaurants", indexed);
+    }
+
+    @TransactionalEventListener
+    public synchronized void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.isDeleted()) {
+            index.remove(event.getRestaurantId());
+            vegetarianCounts.remove(event.getRestaurantId());
+            vegetarianItems.values().removeIf(event.getRestaurantId()::equals);
+            return;
+        }
+        RestaurantDTO restaurant = event.getRestaurant();
+        indexRestaurant(restaurant.getId(), restaurant.getCuisine(), restaurant.getCategories(),
+                restaurant.getIsOpen(), restaurant.getDeliveryFee());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onMenuItemsImported(MenuItemsImportedEvent event) {
+        event.getMenuItems().forEach(menuItem ->
+                onMenuItemChanged(new MenuItemChangedEvent(menuItem.getId(), event.getRestaurantId(), menuItem)));
+    }
+
+    @TransactionalEventListener
+    public synchronized void onMenuItemChanged(MenuItemChangedEvent event) {
+        MenuItemDTO menuItem = event.getMenuItem();
+        boolean vegetarian = menuItem != null
+                && Boolean.TRUE.equals(menuItem.getIsVegetarian())
+                && !Boolean.FALSE.equals(menuItem.getAvailable());
+        boolean wasVegetarian = vegetarianItems.containsKey(event.getMenuItemId());
+        if (vegetarian == wasVegetarian) {
+            return;
+        }
+
+        Long restaurantId = event.getRestaurantId();
+        if (vegetarian) {
+            vegetarianItems.put(event.getMenuItemId(), restaurantId);
+            vegetarianCounts.merge(restaurantId, 1, Integer::sum);
+        } else {
+            vegetarianItems.remove(event.getMenuItemId());
+            vegetarianCounts.computeIfPresent(restaurantId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+        if (index.contains(restaurantId)) {
+            index.put(restaurantId, VEGETARIAN, Set.of(String.valueOf(vegetarianCounts.containsKey(restaurantId))));
+        }
+    }
+
+    private void indexRestaurant(Long id, String cuisine, List<String> categories, Boolean isOpen, Double deliveryFee) {
+        Set<String> categoryValues = new HashSet<>();
+        if (categories != null) {
+            categories.forEach(category -> categoryValues.add(normalize(category)));
+        }
+
+        index.put(id, CUISINE, cuisine != null ? Set.of(normalize(cuisine)) : Set.of());
+        index.put(id, CATEGORY, categoryValues);
+        index.put(id, OPEN, Set.of(String.valueOf(Boolean.TRUE.equals(isOpen))));
+        index.put(id, VEGETARIAN, Set.of(String.valueOf(vegetarianCounts.containsKey(id))));
+        index.put(id, FEE_BAND, Set.of(feeBand(deliveryFee)));
+    }
+
+    static String feeBand(Double deliveryFee) {
+        if (deliveryFee == null || deliveryFee <= 0) {
+            return "free";
+        }
+        if (deliveryFee < 3) {
+            return "low";
+        }
+        if (deliveryFee < 6) {
+            return "medium";
+        }
+        return "high";
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
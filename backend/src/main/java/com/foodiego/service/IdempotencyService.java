@@ -0,0 +1,293 @@
+package com.foodiego.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.exception.BadRequestException;
+import com.foodiego.exception.ConflictException;
+import com.foodiego.exception.ResourceAlreadyExistsException;
+import com.foodiego.model.IdempotencyRecord;
+import com.foodiego.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes a write safe to retry under an {@code Idempotency-Key}. The first request for a key claims it
+ * by inserting a record without a response in its own transaction; the unique key column decides the
+ * winner across instances before anything else runs. The winner then runs the action and stores the
+ * response on its claim; everyone else replays that response, or waits while the claim is open.
+ * Concurrent duplicates on this instance wait for the in-flight request, and completed responses are
+ * replayed from a TTL cache or the stored record. A claim left open by a crashed instance is taken
+ * over once it is older than the claim timeout.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 200;
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration claimTimeout;
+
+    private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Stored> completed;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.wait-timeout:30s}") Duration waitTimeout,
+                              @Value("${idempotency.claim-timeout:5m}") Duration claimTimeout,
+                              @Value("${idempotency.cache-size:100000}") long cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.claimTimeout = claimTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs a transactional action once per key. The response is stored in the action's own
+     * transaction, and a failed action releases the claim so the client can retry.
+     */
+    public <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        return execute(scope, key, request, responseType, action, true);
+    }
+
+    /**
+     * Runs an action whose side effect cannot be rolled back, such as handing the request to a queue.
+     * If storing the response fails after the action returned, the claim stays open, so retries wait
+     * for it to time out instead of repeating the side effect straight away.
+     */
+    public <T> Result<T> executeNonTransactional(String scope, String key, Object request, Class<T> responseType,
+                                                 Supplier<T> action) {
+        return execute(scope, key, request, responseType, action, false);
+    }
+
+    private <T> Result<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                  Supplier<T> action, boolean transactional) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scope + ":" + key;
+        String requestHash = hash(request);
+
+        Stored cached = completed.getIfPresent(scopedKey);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<Stored> ours = new CompletableFuture<>();
+        CompletableFuture<Stored> leader = inFlight.putIfAbsent(scopedKey, ours);
+        if (leader != null) {
+            return replay(await(leader, key), requestHash, responseType);
+        }
+
+        try {
+            Claim claim = claim(scopedKey, requestHash, key);
+            Stored stored = claim.existing();
+            boolean replayed = stored != null;
+            T response = null;
+
+            if (!replayed) {
+                response = transactional
+                        ? runInTransaction(claim.recordId(), scopedKey, action)
+                        : runAndRecord(claim.recordId(), scopedKey, action);
+                stored = new Stored(requestHash, toJson(response));
+            }
+
+            completed.put(scopedKey, stored);
+            ours.complete(stored);
+            return replayed ? replay(stored, requestHash, responseType) : new Result<>(response, false);
+        } catch (RuntimeException ex) {
+            ours.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(scopedKey, ours);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer removed = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteOlderThan(LocalDateTime.now().minus(ttl)));
+        if (removed != null && removed > 0) {
+            log.info("Purged {} expired idempotency records", removed);
+        }
+    }
+
+    // Tries the insert first: for a new key that single statement is the whole claim
+    private Claim claim(String scopedKey, String requestHash, String key) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        int attempts = 0;
+        while (true) {
+            DataIntegrityViolationException violation;
+            try {
+                IdempotencyRecord record = transactionTemplate.execute(status -> idempotencyRecordRepository
+                        .saveAndFlush(new IdempotencyRecord(scopedKey, requestHash, null)));
+                return new Claim(record.getId(), null);
+            } catch (DataIntegrityViolationException ex) {
+                violation = ex;
+            }
+
+            IdempotencyRecord existing = idempotencyRecordRepository.findByIdempotencyKey(scopedKey).orElse(null);
+            if (existing == null) {
+                // Released between our insert and the lookup; anything else is not a key collision
+                if (++attempts >= MAX_CLAIM_ATTEMPTS) {
+                    throw violation;
+                }
+                continue;
+            }
+            if (existing.getResponseBody() != null) {
+                return new Claim(null, new Stored(existing.getRequestHash(), existing.getResponseBody()));
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                throw new ResourceAlreadyExistsException("Idempotency-Key was already used with a different request");
+            }
+            if (existing.getCreatedAt().isBefore(LocalDateTime.now().minus(claimTimeout))) {
+                log.warn("Taking over idempotency key {} claimed at {} and never completed", scopedKey,
+                        existing.getCreatedAt());
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyRecordRepository.releaseClaim(existing.getId()));
+                continue;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new ResourceAlreadyExistsException("A request with Idempotency-Key " + key + " is still in progress");
+            }
+            sleep(key);
+        }
+    }
+
+    private <T> T runInTransaction(Long claimId, String scopedKey, Supplier<T> action) {
+        try {
+            return transactionTemplate.execute(status -> {
+                T result = action.get();
+                if (idempotencyRecordRepository.complete(claimId, toJson(result)) == 0) {
+                    throw new ConflictException("Idempotency-Key " + scopedKey + " was taken over while running; retry");
+                }
+                return result;
+            });
+        } catch (RuntimeException ex) {
+            // Whatever the action wrote rolled back with it, so the key is free again
+            release(claimId, scopedKey);
+            throw ex;
+        }
+    }
+
+    private <T> T runAndRecord(Long claimId, String scopedKey, Supplier<T> action) {
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException ex) {
+            release(claimId, scopedKey);
+            throw ex;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.complete(claimId, toJson(result)));
+        } catch (DataAccessException ex) {
+            log.warn("Could not store the response for idempotency key {}; the claim stays open: {}",
+                    scopedKey, ex.getMessage());
+        }
+        return result;
+    }
+
+    private void release(Long claimId, String scopedKey) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.releaseClaim(claimId));
+        } catch (DataAccessException ex) {
+            log.warn("Could not release idempotency key {}; it frees up after the claim timeout: {}",
+                    scopedKey, ex.getMessage());
+        }
+    }
+
+    private void sleep(String key) {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Idempotency-Key " + key, ex);
+        }
+    }
+
+    private Stored await(CompletableFuture<Stored> leader, String key) {
+        try {
+            return leader.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ResourceAlreadyExistsException("A request with Idempotency-Key " + key + " is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Idempotency-Key " + key, ex);
+        }
+    }
+
+    private <T> Result<T> replay(Stored stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ResourceAlreadyExistsException("Idempotency-Key was already used with a different request");
+        }
+        try {
+            return new Result<>(objectMapper.readValue(stored.responseBody(), responseType), true);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response could not be read", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Request could not be fingerprinted", ex);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response could not be stored", ex);
+        }
+    }
+
+    private record Stored(String requestHash, String responseBody) {
+    }
+
+    private record Claim(Long recordId, Stored existing) {
+    }
+
+    public record Result<T>(T response, boolean replayed) {
+    }
+}
@@ -0,0 +1,421 @@
+package com.foodiego.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.config.CacheConfig;
+import com.foodiego.dto.BulkImportResultDTO;
+import com.foodiego.dto.MenuItemDTO;
+import com.foodiego.event.MenuItemsImportedEvent;
+import com.foodiego.exception.BadRequestException;
+import com.foodiego.exception.ResourceNotFoundException;
+import com.foodiego.model.MenuItem;
+import com.foodiego.model.Restaurant;
+import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.RestaurantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a menu upload (JSON array or CSV) and upserts it in fixed-size chunks, one transaction
+ * per chunk, so that inserts and allergen rows leave as JDBC batches. Rows are matched to existing
+ * items by id, then by name within the restaurant; rows that fail validation are reported and skipped.
+ * Chunks commit independently, so an upload that turns out to be malformed part-way through is
+ * reported as aborted together with what was already committed.
+ */
+@Service
+@Slf4j
+public class MenuImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final List<String> CSV_COLUMNS = List.of(
+            "name", "description", "price", "image", "category", "ispopular", "isvegetarian", "available", "allergens");
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final MenuItemService menuItemService;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public MenuImportService(RestaurantRepository restaurantRepository,
+                             MenuItemRepository menuItemRepository,
+                             MenuItemService menuItemService,
+                             ObjectMapper objectMapper,
+                             CacheManager cacheManager,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.menuItemService = menuItemService;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkImportResultDTO importJson(Long restaurantId, InputStream body) throws IOException {
+        requireRestaurant(restaurantId);
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        int row = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Expected a JSON array of menu items");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    abort(result, "Unexpected end of input after row " + row);
+                    break;
+                }
+                row++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    reject(result, row, null, "Expected a menu item object but found " + describe(token));
+                    continue;
+                }
+
+                // Reading the element as a tree first keeps a bad field value a row error; only broken
+                // JSON syntax escapes to the handler below
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    chunk.add(new ImportRow(row, objectMapper.treeToValue(node, MenuItemDTO.class)));
+                } catch (JsonProcessingException | IllegalArgumentException ex) {
+                    reject(result, row, node.path("name").asText(null), "Invalid menu item: "
+                            + (ex instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : ex.getMessage()));
+                    continue;
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(restaurantId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            abort(result, "Malformed JSON at row " + Math.max(row, 1) + ": " + ex.getOriginalMessage());
+        }
+
+        // Rows before the point of failure were complete, so they are written like any other chunk
+        if (!chunk.isEmpty()) {
+            writeChunk(restaurantId, chunk, result);
+        }
+        return result;
+    }
+
+    public BulkImportResultDTO importCsv(Long restaurantId, InputStream body) throws IOException {
+        requireRestaurant(restaurantId);
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        int row = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> header = readCsvRecord(reader);
+            if (header == null) {
+                return result;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("name") || !columns.containsKey("price") || !columns.containsKey("category")) {
+                throw new BadRequestException("CSV header must contain at least name, price and category; supported: "
+                        + CSV_COLUMNS);
+            }
+
+            List<String> record;
+            while ((record = readCsvRecord(reader)) != null) {
+                row++;
+                try {
+                    chunk.add(new ImportRow(row, toMenuItem(record, columns)));
+                } catch (IllegalArgumentException ex) {
+                    reject(result, row, column(record, columns, "name"), ex.getMessage());
+                    continue;
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(restaurantId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            writeChunk(restaurantId, chunk, result);
+        }
+        return result;
+    }
+
+    private void writeChunk(Long restaurantId, List<ImportRow> rows, BulkImportResultDTO result) {
+        result.setReceived(result.getReceived() + rows.size());
+        int firstRow = rows.get(0).number();
+
+        List<MenuItemDTO> valid = new ArrayList<>(rows.size());
+        List<Integer> validRows = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            String error = validate(row.item());
+            if (error != null) {
+                result.getErrors().add(new BulkImportResultDTO.RowError(row.number(), row.item().getName(), error));
+                result.setFailed(result.getFailed() + 1);
+            } else {
+                valid.add(row.item());
+                validRows.add(row.number());
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<BulkImportResultDTO.RowError> chunkErrors = new ArrayList<>();
+        int[] counts = new int[2];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Restaurant restaurant = restaurantRepository.getReferenceById(restaurantId);
+                Map<Long, MenuItem> byId = new HashMap<>();
+                Map<String, MenuItem> byName = new HashMap<>();
+                loadExisting(restaurantId, valid, byId, byName);
+
+                List<MenuItem> toSave = new ArrayList<>(valid.size());
+                for (int i = 0; i < valid.size(); i++) {
+                    MenuItemDTO row = valid.get(i);
+                    MenuItem menuItem = row.getId() != null ? byId.get(row.getId()) : byName.get(row.getName());
+                    if (row.getId() != null && menuItem == null) {
+                        chunkErrors.add(new BulkImportResultDTO.RowError(validRows.get(i), row.getName(),
+                                "Menu item " + row.getId() + " does not belong to restaurant " + restaurantId));
+                        continue;
+                    }
+
+                    if (menuItem == null) {
+                        menuItem = new MenuItem();
+                        menuItem.setRestaurant(restaurant);
+                        byName.put(row.getName(), menuItem);
+                        counts[0]++;
+                    } else {
+                        counts[1]++;
+                    }
+                    apply(menuItem, row);
+                    toSave.add(menuItem);
+                }
+
+                List<MenuItemDTO> imported = new ArrayList<>(toSave.size());
+                for (MenuItem saved : menuItemRepository.saveAll(toSave)) {
+                    imported.add(menuItemService.convertToDTO(saved));
+                }
+                eventPublisher.publishEvent(new MenuItemsImportedEvent(restaurantId, imported));
+
+                Cache menus = cacheManager.getCache(CacheConfig.RESTAURANT_MENUS);
+                if (menus != null) {
+                    menus.evict(restaurantId);
+                }
+            });
+        } catch (DataAccessException | TransactionException ex) {
+            log.warn("Menu import chunk for restaurant {} starting at row {} rolled back", restaurantId, firstRow, ex);
+            chunkErrors.clear();
+            counts[0] = 0;
+            counts[1] = 0;
+            for (int i = 0; i < valid.size(); i++) {
+                chunkErrors.add(new BulkImportResultDTO.RowError(validRows.get(i), valid.get(i).getName(),
+                        "Chunk rolled back: " + ex.getMostSpecificCause().getMessage()));
+            }
+        }
+
+        result.setCreated(result.getCreated() + counts[0]);
+        result.setUpdated(result.getUpdated() + counts[1]);
+        result.setCommitted(result.getCommitted() + counts[0] + counts[1]);
+        result.setFailed(result.getFailed() + chunkErrors.size());
+        result.getErrors().addAll(chunkErrors);
+        log.debug("Imported menu chunk for restaurant {} starting at row {}", restaurantId, firstRow);
+    }
+
+    private static void reject(BulkImportResultDTO result, int row, String name, String message) {
+        result.setReceived(result.getReceived() + 1);
+        result.setFailed(result.getFailed() + 1);
+        result.getErrors().add(new BulkImportResultDTO.RowError(row, name, message));
+    }
+
+    private static void abort(BulkImportResultDTO result, String reason) {
+        result.setAborted(true);
+        result.setAbortReason(reason);
+    }
+
+    private static String describe(JsonToken token) {
+        return switch (token) {
+            case START_ARRAY -> "an array";
+            case VALUE_STRING -> "a string";
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> "a number";
+            case VALUE_TRUE, VALUE_FALSE -> "a boolean";
+            case VALUE_NULL -> "null";
+            default -> token.name();
+        };
+    }
+
+    private void loadExisting(Long restaurantId, List<MenuItemDTO> rows,
+                              Map<Long, MenuItem> byId, Map<String, MenuItem> byName) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (MenuItemDTO row : rows) {
+            if (row.getId() != null) {
+                ids.add(row.getId());
+            } else {
+                names.add(row.getName());
+            }
+        }
+        if (!ids.isEmpty()) {
+            for (MenuItem menuItem : menuItemRepository.findAllById(ids)) {
+                if (restaurantId.equals(menuItem.getRestaurantId())) {
+                    byId.put(menuItem.getId(), menuItem);
+                }
+            }
+        }
+        if (!names.isEmpty()) {
+            for (MenuItem menuItem : menuItemRepository.findByRestaurant_IdAndNameIn(restaurantId, names)) {
+                byName.putIfAbsent(menuItem.getName(), menuItem);
+            }
+        }
+    }
+
+    private void apply(MenuItem menuItem, MenuItemDTO row) {
+        menuItem.setName(row.getName());
+        if (row.getDescription() != null) menuItem.setDescription(row.getDescription());
+        menuItem.setPrice(row.getPrice());
+        if (row.getImage() != null) menuItem.setImage(row.getImage());
+        menuItem.setCategory(row.getCategory());
+        if (row.getIsPopular() != null) menuItem.setIsPopular(row.getIsPopular());
+        if (row.getIsVegetarian() != null) menuItem.setIsVegetarian(row.getIsVegetarian());
+        if (row.getAvailable() != null) menuItem.setAvailable(row.getAvailable());
+        if (row.getAllergens() != null) menuItem.setAllergens(new ArrayList<>(row.getAllergens()));
+    }
+
+    private String validate(MenuItemDTO row) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getPrice() == null || row.getPrice() < 0) {
+            return "price must be a non-negative number";
+        }
+        if (row.getCategory() == null || row.getCategory().isBlank()) {
+            return "category is required";
+        }
+        return null;
+    }
+
+    private void requireRestaurant(Long restaurantId) {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant not found with id: " + restaurantId);
+        }
+    }
+
+    private MenuItemDTO toMenuItem(List<String> record, Map<String, Integer> columns) {
+        MenuItemDTO dto = new MenuItemDTO();
+        dto.setName(column(record, columns, "name"));
+        dto.setDescription(column(record, columns, "description"));
+        dto.setImage(column(record, columns, "image"));
+        dto.setCategory(column(record, columns, "category"));
+
+        String price = column(record, columns, "price");
+        try {
+            dto.setPrice(price != null ? Double.valueOf(price) : null);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("price is not a number: " + price);
+        }
+
+        String isPopular = column(record, columns, "ispopular");
+        if (isPopular != null) dto.setIsPopular(Boolean.parseBoolean(isPopular));
+        String isVegetarian = column(record, columns, "isvegetarian");
+        if (isVegetarian != null) dto.setIsVegetarian(Boolean.parseBoolean(isVegetarian));
+        String available = column(record, columns, "available");
+        if (available != null) dto.setAvailable(Boolean.parseBoolean(available));
+
+        String allergens = column(record, columns, "allergens");
+        if (allergens != null) {
+            dto.setAllergens(Arrays.stream(allergens.split("[|;]"))
+                    .map(String::trim)
+                    .filter(allergen -> !allergen.isEmpty())
+                    .collect(Collectors.toList()));
+        }
+        return dto;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Reads one RFC 4180 record: comma separated, double-quoted fields may contain commas,
+     * escaped quotes and line breaks. Returns null at end of input.
+     */
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportRow(int number, MenuItemDTO item) {
+    }
+}
@@ -1,16 +1,25 @@
 package com.foodiego.service;
 
+import com.foodiego.config.CacheConfig;
 import com.foodiego.dto.MenuItemDTO;
+import com.foodiego.dto.ResourceVersion;
+import com.foodiego.event.MenuItemChangedEvent;
 import com.foodiego.exception.ResourceNotFoundException;
 import com.foodiego.model.MenuItem;
 import com.foodiego.model.Restaurant;
 import com.foodiego.repository.MenuItemRepository;
 import com.foodiego.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,9 +28,12 @@ public class MenuItemService {
 
     private final MenuItemRepository menuItemRepository;
     private final RestaurantRepository restaurantRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Cacheable(cacheNames = CacheConfig.RESTAURANT_MENUS, key = "#restaurantId")
     public List<MenuItemDTO> getMenuItemsByRestaurant(Long restaurantId) {
-        return menuItemRepository.findByRestaurant_Id(restaurantId).stream()
+        return menuItemRepository.findMenuWithAllergens(restaurantId).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -32,6 +44,11 @@ public class MenuItemService {
         return convertToDTO(menuItem);
     }
 
+    public Optional<ResourceVersion> getMenuItemVersion(Long id) {
+        return menuItemRepository.findUpdatedAtById(id)
+                .map(updatedAt -> ResourceVersion.of("menu-item", id, updatedAt));
+    }
+
     @Transactional
     public MenuItemDTO createMenuItem(MenuItemDTO menuItemDTO) {
         Restaurant restaurant = restaurantRepository.findById(menuItemDTO.getRestaurantId())
@@ -50,7 +67,10 @@ public class MenuItemService {
         menuItem.setAllergens(menuItemDTO.getAllergens());
 
         menuItem = menuItemRepository.save(menuItem);
-        return convertToDTO(menuItem);
+        evictMenu(restaurant.getId());
+        MenuItemDTO result = convertToDTO(menuItem);
+        eventPublisher.publishEvent(new MenuItemChangedEvent(result.getId(), result.getRestaurantId(), result));
+        return result;
     }
 
     @Transactional
@@ -69,18 +89,30 @@ public class MenuItemService {
         if (menuItemDTO.getAllergens() != null) menuItem.setAllergens(menuItemDTO.getAllergens());
 
         menuItem = menuItemRepository.save(menuItem);
-        return convertToDTO(menuItem);
+        evictMenu(menuItem.getRestaurantId());
+        MenuItemDTO result = convertToDTO(menuItem);
+        eventPublisher.publishEvent(new MenuItemChangedEvent(result.getId(), result.getRestaurantId(), result));
+        return result;
     }
 
     @Transactional
     public void deleteMenuItem(Long id) {
-        if (!menuItemRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Menu item not found with id: " + id);
+        MenuItem menuItem = menuItemRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with id: " + id));
+        Long restaurantId = menuItem.getRestaurantId();
+        menuItemRepository.delete(menuItem);
+        evictMenu(restaurantId);
+        eventPublisher.publishEvent(new MenuItemChangedEvent(id, restaurantId, null));
+    }
+
+    private void evictMenu(Long restaurantId) {
+        Cache menus = cacheManager.getCache(CacheConfig.RESTAURANT_MENUS);
+        if (menus != null && restaurantId != null) {
+            menus.evict(restaurantId);
         }
-        menuItemRepository.deleteById(id);
     }
 
-    private MenuItemDTO convertToDTO(MenuItem menuItem) {
+    MenuItemDTO convertToDTO(MenuItem menuItem) {
         MenuItemDTO dto = new MenuItemDTO();
         dto.setId(menuItem.getId());
         dto.setRestaurantId(menuItem.getRestaurantId());
@@ -92,7 +124,7 @@ public class MenuItemService {
         dto.setIsPopular(menuItem.getIsPopular());
         dto.setIsVegetarian(menuItem.getIsVegetarian());
         dto.setAvailable(menuItem.getAvailable());
-        dto.setAllergens(menuItem.getAllergens());
+        dto.setAllergens(menuItem.getAllergens() != null ? new ArrayList<>(menuItem.getAllergens()) : null);
         dto.setCreatedAt(menuItem.getCreatedAt());
         dto.setUpdatedAt(menuItem.getUpdatedAt());
         return dto;
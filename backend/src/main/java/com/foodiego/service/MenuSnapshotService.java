@@ -0,0 +1,163 @@
+package com.foodiego.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.dto.MenuCategoryDTO;
+import com.foodiego.dto.MenuItemDTO;
+import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.dto.RestaurantMenuDTO;
+import com.foodiego.event.MenuItemChangedEvent;
+import com.foodiego.event.MenuItemsImportedEvent;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.exception.ResourceNotFoundException;
+import com.foodiego.model.MenuItem;
+import com.foodiego.model.Restaurant;
+import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.RestaurantRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the full restaurant page (restaurant plus menu grouped by category) as pre-serialized
+ * JSON and gzip bytes. Snapshots are built on first request, kept in a cache bounded by their byte
+ * size, and dropped after any committed write to that restaurant or its menu; a per-restaurant
+ * generation counter stops a build that raced with a write from publishing stale bytes. Deleting a
+ * restaurant bumps its generation like any other write and leaves the counter in place as a tombstone.
+ */
+@Service
+@Slf4j
+public class MenuSnapshotService {
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantService restaurantService;
+    private final MenuItemService menuItemService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Cache<Long, MenuSnapshot> snapshots;
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public MenuSnapshotService(RestaurantRepository restaurantRepository,
+                               MenuItemRepository menuItemRepository,
+                               RestaurantService restaurantService,
+                               MenuItemService menuItemService,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${menu-snapshot.max-bytes:67108864}") long maxBytes) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.restaurantService = restaurantService;
+        this.menuItemService = menuItemService;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long id, MenuSnapshot snapshot) -> snapshot.json().length + snapshot.gzip().length)
+                .build();
+    }
+
+    public MenuSnapshot getSnapshot(Long restaurantId) {
+        MenuSnapshot snapshot = snapshots.getIfPresent(restaurantId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        AtomicLong generation = generation(restaurantId);
+        long startedAt = generation.get();
+        snapshot = build(restaurantId);
+        if (generation.get() == startedAt) {
+            snapshots.put(restaurantId, snapshot);
+            // An invalidation between the check and the put would otherwise be overwritten
+            if (generation.get() != startedAt) {
+                snapshots.asMap().remove(restaurantId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        invalidate(event.getRestaurantId());
+    }
+
+    @TransactionalEventListener
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        invalidate(event.getRestaurantId());
+    }
+
+    @TransactionalEventListener
+    public void onMenuItemsImported(MenuItemsImportedEvent event) {
+        invalidate(event.getRestaurantId());
+    }
+
+    private void invalidate(Long restaurantId) {
+        generation(restaurantId).incrementAndGet();
+        snapshots.invalidate(restaurantId);
+    }
+
+    private AtomicLong generation(Long restaurantId) {
+        return generations.computeIfAbsent(restaurantId, id -> new AtomicLong());
+    }
+
+    private MenuSnapshot build(Long restaurantId) {
+        RestaurantMenuDTO menu = readOnlyTransaction.execute(status -> {
+            Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + restaurantId));
+            RestaurantDTO restaurantDTO = restaurantService.convertToDTO(restaurant);
+
+            Map<String, List<MenuItemDTO>> byCategory = new LinkedHashMap<>();
+            for (MenuItem menuItem : menuItemRepository.findMenuWithAllergens(restaurantId)) {
+                byCategory.computeIfAbsent(menuItem.getCategory(), category -> new ArrayList<>())
+                        .add(menuItemService.convertToDTO(menuItem));
+            }
+
+            List<MenuCategoryDTO> categories = new ArrayList<>(byCategory.size());
+            byCategory.forEach((name, items) -> categories.add(new MenuCategoryDTO(name, items)));
+            return new RestaurantMenuDTO(restaurantDTO, categories);
+        });
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(menu);
+            byte[] gzip = gzip(json);
+            log.debug("Built menu snapshot for restaurant {}: {} bytes, {} gzipped", restaurantId, json.length, gzip.length);
+            String tag = "menu-" + restaurantId + "-" + DigestUtils.md5DigestAsHex(json);
+            return new MenuSnapshot(json, gzip, "\"" + tag + "\"", "\"" + tag + "-gzip\"");
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize menu for restaurant " + restaurantId, ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    // Strong validators are per representation, so the gzip body gets its own ETag
+    public record MenuSnapshot(byte[] json, byte[] gzip, String etag, String gzipEtag) {
+    }
+}
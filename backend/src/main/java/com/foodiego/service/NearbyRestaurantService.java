@@ -0,0 +1,84 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.NearbyRestaurantDTO;
+import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.exception.BadRequestException;
+import com.foodiego.exception.ResourceNotFoundException;
+import com.foodiego.repository.RestaurantRepository;
+import com.foodiego.search.GeoGridIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NearbyRestaurantService {
+
+    private static final double CELL_SIZE_DEGREES = 0.05;
+    private static final double MAX_RADIUS_KM = 50.0;
+    private static final int MAX_LIMIT = 100;
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantService restaurantService;
+
+    private final GeoGridIndex index = new GeoGridIndex(CELL_SIZE_DEGREES);
+
+    public List<NearbyRestaurantDTO> findNearby(double latitude, double longitude, double radiusKm, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Coordinates out of range: " + latitude + ", " + longitude);
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new BadRequestException("Radius must be between 0 and " + MAX_RADIUS_KM + " km");
+        }
+
+        List<NearbyRestaurantDTO> result = new ArrayList<>();
+        for (GeoGridIndex.Hit hit : index.nearest(latitude, longitude, radiusKm, Math.min(limit, MAX_LIMIT))) {
+            try {
+                RestaurantDTO restaurant = restaurantService.getRestaurantById(hit.id());
+                result.add(new NearbyRestaurantDTO(restaurant, hit.distanceKm()));
+            } catch (ResourceNotFoundException ex) {
+                index.remove(hit.id());
+            }
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        index.clear();
+        for (Object[] row : restaurantRepository.findGeoLocations()) {
+            index.put(new GeoGridIndex.Location(
+                    (Long) row[0],
+                    (Double) row[1],
+                    (Double) row[2],
+                    (Double) row[3],
+                    Boolean.TRUE.equals(row[4])
+            ));
+        }
+        log.info("Geo index built: {} restaurants", index.size());
+    }
+
+    @TransactionalEventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        RestaurantDTO restaurant = event.getRestaurant();
+        if (event.isDeleted() || restaurant.getLatitude() == null || restaurant.getLongitude() == null) {
+            index.remove(event.getRestaurantId());
+            return;
+        }
+        index.put(new GeoGridIndex.Location(
+                restaurant.getId(),
+                restaurant.getLatitude(),
+                restaurant.getLongitude(),
+                restaurant.getDeliveryRadiusKm(),
+                Boolean.TRUE.equals(restaurant.getIsOpen())
+        ));
+    }
+}
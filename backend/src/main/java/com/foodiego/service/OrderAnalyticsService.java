@@ -0,0 +1,176 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.OrderDTO;
+import com.foodiego.dto.RevenueAnalyticsDTO;
+import com.foodiego.dto.RevenueBucketDTO;
+import com.foodiego.event.OrderChangedEvent;
+import com.foodiego.exception.BadRequestException;
+import com.foodiego.model.Order.OrderStatus;
+import com.foodiego.model.OrderRollup;
+import com.foodiego.model.OrderRollup.Granularity;
+import com.foodiego.repository.OrderRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the hourly and daily {@link OrderRollup} buckets and answers revenue time series from
+ * them. Every order write adjusts its buckets inside the writing transaction, so the rollups commit
+ * or roll back together with the order and reads cost O(buckets) rather than O(orders). The price is
+ * that one restaurant's concurrent order writes queue on the same hourly and daily row locks until
+ * each transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderAnalyticsService {
+
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    private static final Duration MAX_DAILY_RANGE = Duration.ofDays(3660);
+
+    private final OrderRollupRepository rollupRepository;
+
+    @Transactional(readOnly = true)
+    public RevenueAnalyticsDTO getRevenue(Long restaurantId, Granularity granularity,
+                                          LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from
+                : end.minus(granularity == Granularity.HOUR ? Duration.ofHours(48) : Duration.ofDays(30));
+        Duration maxRange = granularity == Granularity.HOUR ? MAX_HOURLY_RANGE : MAX_DAILY_RANGE;
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(maxRange) > 0) {
+            throw new BadRequestException("Range must be positive and at most " + maxRange.toDays()
+                    + " days for " + granularity + " buckets");
+        }
+
+        List<RevenueBucketDTO> buckets = rollupRepository
+                .findSeries(restaurantId, granularity, bucketStart(start, granularity), end).stream()
+                .map(rollup -> toBucket(rollup.getBucketStart(), rollup.getCreatedCount(), new long[] {
+                        rollup.getPendingCount(), rollup.getConfirmedCount(), rollup.getPreparingCount(),
+                        rollup.getReadyCount(), rollup.getCompletedCount(), rollup.getCancelledCount()
+                }, rollup.getGrossTotal(), rollup.getRevenue()))
+                .collect(Collectors.toList());
+
+        return new RevenueAnalyticsDTO(restaurantId, granularity, start, end, getTotals(restaurantId), buckets);
+    }
+
+    // All-time totals come from the daily buckets, one row per day of history
+    private RevenueBucketDTO getTotals(Long restaurantId) {
+        Object[] row = rollupRepository.sumByRestaurant(restaurantId, Granularity.DAY).stream()
+                .findFirst()
+                .orElse(new Object[9]);
+        long[] statusCounts = new long[6];
+        for (int i = 0; i < statusCounts.length; i++) {
+            statusCounts[i] = asLong(row[i + 1]);
+        }
+        return toBucket(null, asLong(row[0]), statusCounts, asDouble(row[7]), asDouble(row[8]));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderChanged(OrderChangedEvent event) {
+        OrderDTO order = event.getOrder();
+        if (order == null || order.getCreatedAt() == null) {
+            return;
+        }
+        double total = order.getTotal() != null ? order.getTotal() : 0.0;
+        long[] statusDeltas = new long[OrderStatus.values().length];
+        long created = 0;
+        double grossTotal = 0.0;
+        double revenue = 0.0;
+
+        switch (event.getType()) {
+            case CREATED -> {
+                created = 1;
+                grossTotal = total;
+                statusDeltas[order.getStatus().ordinal()] = 1;
+            }
+            case STATUS_CHANGED -> {
+                if (event.getPreviousStatus() == order.getStatus()) {
+                    return;
+                }
+                statusDeltas[event.getPreviousStatus().ordinal()] = -1;
+                statusDeltas[order.getStatus().ordinal()] = 1;
+                if (order.getStatus() == OrderStatus.COMPLETED) {
+                    revenue = total;
+                } else if (event.getPreviousStatus() == OrderStatus.COMPLETED) {
+                    revenue = -total;
+                }
+            }
+            case DELETED -> {
+                created = -1;
+                grossTotal = -total;
+                statusDeltas[order.getStatus().ordinal()] = -1;
+                if (order.getStatus() == OrderStatus.COMPLETED) {
+                    revenue = -total;
+                }
+            }
+        }
+
+        for (Granularity granularity : Granularity.values()) {
+            rollupRepository.applyDelta(event.getRestaurantId(), granularity.name(),
+                    bucketStart(order.getCreatedAt(), granularity), created,
+                    statusDeltas[OrderStatus.PENDING.ordinal()],
+                    statusDeltas[OrderStatus.CONFIRMED.ordinal()],
+                    statusDeltas[OrderStatus.PREPARING.ordinal()],
+                    statusDeltas[OrderStatus.READY.ordinal()],
+                    statusDeltas[OrderStatus.COMPLETED.ordinal()],
+                    statusDeltas[OrderStatus.CANCELLED.ordinal()],
+                    grossTotal, revenue);
+        }
+    }
+
+    // One-off seeding for databases that already hold orders when the rollups are introduced
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        try {
+            int hourly = rollupRepository.backfill(Granularity.HOUR.name(), "hour");
+            int daily = rollupRepository.backfill(Granularity.DAY.name(), "day");
+            log.info("Order rollups backfilled: {} hourly and {} daily buckets", hourly, daily);
+        } catch (DataAccessException ex) {
+            log.warn("Could not backfill order rollups: {}", ex.getMessage());
+        }
+    }
+
+    private static LocalDateTime bucketStart(LocalDateTime time, Granularity granularity) {
+        return granularity == Granularity.HOUR
+                ? time.truncatedTo(ChronoUnit.HOURS)
+                : time.truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private static RevenueBucketDTO toBucket(LocalDateTime bucketStart, long orderCount, long[] statusCounts,
+                                             double grossTotal, double revenue) {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        OrderStatus[] statuses = {OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PREPARING,
+                OrderStatus.READY, OrderStatus.COMPLETED, OrderStatus.CANCELLED};
+        for (int i = 0; i < statuses.length; i++) {
+            counts.put(statuses[i], statusCounts[i]);
+        }
+        long completed = counts.get(OrderStatus.COMPLETED);
+        double averageBasket = completed > 0 ? revenue / completed : 0.0;
+        return new RevenueBucketDTO(bucketStart, orderCount, counts, grossTotal, revenue, averageBasket);
+    }
+
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static double asDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.foodiego.service;
+
+import com.foodiego.repository.OrderArchiveRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Moves COMPLETED and CANCELLED orders older than {@code order-archive.closed-after} out of the hot
+ * {@code orders}/{@code order_items} tables into the monthly archive partitions, one short
+ * transaction per batch so kitchen traffic never waits behind a long-running move.
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+
+    private final OrderArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration closedAfter;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    public OrderArchiveService(OrderArchiveRepository archiveRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${order-archive.closed-after:90d}") Duration closedAfter,
+                               @Value("${order-archive.batch-size:500}") int batchSize,
+                               @Value("${order-archive.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.closedAfter = closedAfter;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @PostConstruct
+    public void createArchiveTables() {
+        try {
+            archiveRepository.createTables();
+        } catch (DataAccessException ex) {
+            log.warn("Could not create order archive tables: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order-archive.interval-ms:3600000}",
+               initialDelayString = "${order-archive.initial-delay-ms:60000}")
+    public void archiveClosedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(closedAfter);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int moved;
+            try {
+                moved = archiveBatch(cutoff);
+            } catch (DataAccessException ex) {
+                log.warn("Order archiving stopped after {} orders: {}", total, ex.getMessage());
+                break;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} closed orders created before {}", total, cutoff);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<LocalDate> months = new ArrayList<>();
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = archiveRepository.lockClosedOrdersBefore(cutoff, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            for (LocalDate month : archiveRepository.findCreationMonths(ids)) {
+                if (!knownPartitions.contains(month)) {
+                    archiveRepository.createMonthlyPartitions(month);
+                    months.add(month);
+                }
+            }
+            return archiveRepository.moveToArchive(ids);
+        });
+        // Only remembered once committed, so a rolled-back partition is created again next time
+        knownPartitions.addAll(months);
+        return moved != null ? moved : 0;
+    }
+}
@@ -0,0 +1,276 @@
+package com.foodiego.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.dto.OrderFilter;
+import com.foodiego.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Streams orders and their line items straight from a forward-only JDBC cursor to the response.
+ * Rows are written as they arrive and nothing is collected, so heap use does not grow with the
+ * size of the export. PostgreSQL only honours the fetch size inside a transaction, hence the
+ * read-only transaction around the query.
+ */
+@Service
+public class OrderExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new BadRequestException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private static final String CSV_HEADER = "order_id,order_number,restaurant_id,restaurant_name,status,total," +
+            "customer_name,customer_phone,customer_address,notes,created_at,updated_at," +
+            "item_id,menu_item_id,item_name,item_price,item_quantity\n";
+
+    private static final String ROW_COLUMNS = "SELECT o.id, o.order_number, o.restaurant_id, r.name AS restaurant_name, " +
+            "o.status, o.total, o.customer_name, o.customer_phone, o.customer_address, o.notes, o.created_at, " +
+            "o.updated_at, i.id AS item_id, i.menu_item_id, i.menu_item_name, i.price, i.quantity ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${order-export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate streamingTemplate = new JdbcTemplate(dataSource);
+        streamingTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(OrderFilter filter, boolean includeHistory, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = buildWhere(filter, params);
+        String sql = ROW_COLUMNS +
+                "FROM orders o LEFT JOIN restaurants r ON r.id = o.restaurant_id " +
+                "LEFT JOIN order_items i ON i.order_id = o.id " + where;
+        if (includeHistory) {
+            sql += " UNION ALL " + ROW_COLUMNS +
+                    "FROM orders_archive o LEFT JOIN restaurants r ON r.id = o.restaurant_id " +
+                    "LEFT JOIN order_items_archive i ON i.order_id = o.id AND i.order_created_at = o.created_at " + where;
+        }
+        String query = sql + " ORDER BY created_at, id, item_id";
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(query, params, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+            rowWriter.finish();
+        } catch (UncheckedIOException ex) {
+            // Typically the client went away; rolling back the transaction closes the cursor
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private String buildWhere(OrderFilter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder("WHERE 1 = 1");
+        if (filter.getRestaurantId() != null) {
+            where.append(" AND o.restaurant_id = :restaurantId");
+            params.addValue("restaurantId", filter.getRestaurantId());
+        }
+        if (filter.getStatus() != null) {
+            where.append(" AND o.status = :status");
+            params.addValue("status", filter.getStatus().name());
+        }
+        if (filter.getFrom() != null) {
+            where.append(" AND o.created_at >= :from");
+            params.addValue("from", Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            where.append(" AND o.created_at < :to");
+            params.addValue("to", Timestamp.valueOf(filter.getTo()));
+        }
+        return where.toString();
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private boolean headerWritten;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            if (!headerWritten) {
+                writer.write(CSV_HEADER);
+                headerWritten = true;
+            }
+            writer.write(rs.getString("id"));
+            field(rs.getString("order_number"));
+            field(rs.getString("restaurant_id"));
+            field(rs.getString("restaurant_name"));
+            field(rs.getString("status"));
+            field(rs.getString("total"));
+            field(rs.getString("customer_name"));
+            field(rs.getString("customer_phone"));
+            field(rs.getString("customer_address"));
+            field(rs.getString("notes"));
+            field(timestamp(rs, "created_at"));
+            field(timestamp(rs, "updated_at"));
+            field(rs.getString("item_id"));
+            field(rs.getString("menu_item_id"));
+            field(rs.getString("menu_item_name"));
+            field(rs.getString("price"));
+            field(rs.getString("quantity"));
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (!headerWritten) {
+                writer.write(CSV_HEADER);
+            }
+        }
+
+        private void field(String value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private long currentOrderId = -1;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            long orderId = rs.getLong("id");
+            if (orderId != currentOrderId) {
+                closeOrder();
+                currentOrderId = orderId;
+                generator.writeStartObject();
+                generator.writeNumberField("id", orderId);
+                generator.writeStringField("orderNumber", rs.getString("order_number"));
+                generator.writeNumberField("restaurantId", rs.getLong("restaurant_id"));
+                generator.writeStringField("restaurantName", rs.getString("restaurant_name"));
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeNumberField("total", rs.getDouble("total"));
+                generator.writeStringField("customerName", rs.getString("customer_name"));
+                generator.writeStringField("customerPhone", rs.getString("customer_phone"));
+                generator.writeStringField("customerAddress", rs.getString("customer_address"));
+                generator.writeStringField("notes", rs.getString("notes"));
+                generator.writeStringField("createdAt", timestamp(rs, "created_at"));
+                generator.writeStringField("updatedAt", timestamp(rs, "updated_at"));
+                generator.writeArrayFieldStart("items");
+            }
+
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                generator.writeStartObject();
+                generator.writeNumberField("id", itemId);
+                long menuItemId = rs.getLong("menu_item_id");
+                if (rs.wasNull()) {
+                    generator.writeNullField("menuItemId");
+                } else {
+                    generator.writeNumberField("menuItemId", menuItemId);
+                }
+                generator.writeStringField("name", rs.getString("menu_item_name"));
+                generator.writeNumberField("price", rs.getDouble("price"));
+                generator.writeNumberField("quantity", rs.getInt("quantity"));
+                generator.writeEndObject();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            closeOrder();
+            generator.flush();
+        }
+
+        private void closeOrder() throws IOException {
+            if (currentOrderId < 0) {
+                return;
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        return value != null ? value.toString() : null;
+    }
+}
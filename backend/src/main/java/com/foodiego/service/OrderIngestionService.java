@@ -0,0 +1,257 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.CreateOrderRequest;
+import com.foodiego.dto.IngestionStatsDTO;
+import com.foodiego.dto.OrderAcceptedDTO;
+import com.foodiego.dto.OrderDTO;
+import com.foodiego.dto.OrderIngestionStatusDTO;
+import com.foodiego.dto.OrderIngestionStatusDTO.State;
+import com.foodiego.exception.ResourceNotFoundException;
+import com.foodiego.exception.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous order intake. Requests are validated and numbered on the caller's thread, then
+ * queued; a small group of writer threads drains the queue and persists whatever has accumulated
+ * as one batched transaction. Database connections in use for intake are therefore bounded by the
+ * writer count rather than by the number of concurrent requests. When the queue is full the
+ * configured {@link RejectionPolicy} decides between failing fast, waiting, or writing inline.
+ *
+ * <p>Delivery is at most once. The queue and the status entries live only in this process's memory,
+ * so orders accepted with 202 but not yet written are lost if the instance crashes or is killed
+ * before the writers drain; a graceful shutdown drains for up to 30 seconds. A lost order's status
+ * URL answers 404, and the client must submit it again under a new {@code Idempotency-Key}, since
+ * the old key replays the original 202. Callers that cannot tolerate this use {@code POST /api/orders}.
+ */
+@Service
+@Slf4j
+public class OrderIngestionService {
+
+    public enum RejectionPolicy {
+        REJECT,
+        BLOCK,
+        CALLER_RUNS
+    }
+
+    private static final String STATUS_PATH = "/api/orders/ingestion/";
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final RejectionPolicy rejectionPolicy;
+    private final Duration offerTimeout;
+    private final int batchSize;
+    private final int writerThreads;
+    private final long retryAfterSeconds;
+    private final BlockingQueue<PreparedOrder> queue;
+    private final Cache<String, OrderIngestionStatusDTO> statuses;
+    private final List<Thread> writers = new ArrayList<>();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedOrders = new LongAdder();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+
+    private volatile boolean running;
+
+    public OrderIngestionService(OrderService orderService,
+                                 @Value("${order-ingestion.enabled:true}") boolean enabled,
+                                 @Value("${order-ingestion.queue-capacity:2000}") int queueCapacity,
+                                 @Value("${order-ingestion.rejection-policy:REJECT}") RejectionPolicy rejectionPolicy,
+                                 @Value("${order-ingestion.offer-timeout:2s}") Duration offerTimeout,
+                                 @Value("${order-ingestion.batch-size:100}") int batchSize,
+                                 @Value("${order-ingestion.writer-threads:2}") int writerThreads,
+                                 @Value("${order-ingestion.retry-after-seconds:2}") long retryAfterSeconds,
+                                 @Value("${order-ingestion.status-ttl:1h}") Duration statusTtl) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.rejectionPolicy = rejectionPolicy;
+        this.offerTimeout = offerTimeout;
+        this.batchSize = batchSize;
+        this.writerThreads = writerThreads;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(queueCapacity * 50L)
+                .expireAfterWrite(statusTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public void startWriters() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= writerThreads; i++) {
+            Thread writer = new Thread(this::runWriter, "order-ingestion-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    public OrderAcceptedDTO submit(CreateOrderRequest request) {
+        // Validation failures surface synchronously as 4xx; only valid orders are queued
+        PreparedOrder prepared = orderService.prepareOrder(request);
+        String orderNumber = prepared.orderNumber();
+        statuses.put(orderNumber, new OrderIngestionStatusDTO(orderNumber, State.QUEUED, null, null));
+
+        if (!running) {
+            persistInline(prepared);
+        } else if (!enqueue(prepared)) {
+            statuses.invalidate(orderNumber);
+            rejected.increment();
+            throw new ServiceUnavailableException("Order intake is at capacity, please retry", retryAfterSeconds);
+        }
+        accepted.increment();
+        return new OrderAcceptedDTO(orderNumber, STATUS_PATH + orderNumber);
+    }
+
+    public OrderIngestionStatusDTO getStatus(String orderNumber) {
+        OrderIngestionStatusDTO status = statuses.getIfPresent(orderNumber);
+        if (status != null) {
+            return status;
+        }
+        // Status entries expire; an order that was written long ago is still reported as persisted
+        return orderService.findOrderIdByNumber(orderNumber)
+                .map(id -> new OrderIngestionStatusDTO(orderNumber, State.PERSISTED, id, null))
+                .orElseThrow(() -> new ResourceNotFoundException("No order submitted with number: " + orderNumber));
+    }
+
+    public IngestionStatsDTO getStats() {
+        long batchCount = batches.sum();
+        return new IngestionStatsDTO(
+                enabled,
+                rejectionPolicy.name(),
+                queue.size(),
+                queue.size() + queue.remainingCapacity(),
+                accepted.sum(),
+                rejected.sum(),
+                persisted.sum(),
+                failed.sum(),
+                batchCount,
+                batchCount > 0 ? (double) batchedOrders.sum() / batchCount : 0.0,
+                lastBatchMillis.get()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        // Writers keep draining until the queue is empty, so accepted orders are not lost
+        for (Thread writer : writers) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (!queue.isEmpty()) {
+            log.error("{} accepted orders were still queued at shutdown", queue.size());
+        }
+    }
+
+    private boolean enqueue(PreparedOrder prepared) {
+        switch (rejectionPolicy) {
+            case BLOCK -> {
+                try {
+                    return queue.offer(prepared, offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            case CALLER_RUNS -> {
+                if (!queue.offer(prepared)) {
+                    persistInline(prepared);
+                }
+                return true;
+            }
+            default -> {
+                return queue.offer(prepared);
+            }
+        }
+    }
+
+    private void runWriter() {
+        List<PreparedOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PreparedOrder first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Under load the queue refills while a batch is written, so batches grow with the spike
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Order ingestion writer failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PreparedOrder> batch) {
+        long start = System.nanoTime();
+        try {
+            for (OrderDTO order : orderService.persistPreparedOrders(batch)) {
+                markPersisted(order);
+            }
+        } catch (RuntimeException ex) {
+            // One bad order (e.g. its restaurant was just deleted) must not fail the whole group
+            log.warn("Batch of {} orders failed, retrying individually: {}", batch.size(), ex.getMessage());
+            batch.forEach(this::persistOne);
+        }
+        batches.increment();
+        batchedOrders.add(batch.size());
+        lastBatchMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Runs on the request thread, so the caller sees the failure; the status entry must say so too
+    private void persistInline(PreparedOrder prepared) {
+        try {
+            markPersisted(orderService.persistPreparedOrders(List.of(prepared)).get(0));
+        } catch (RuntimeException ex) {
+            failed.increment();
+            statuses.put(prepared.orderNumber(),
+                    new OrderIngestionStatusDTO(prepared.orderNumber(), State.FAILED, null, ex.getMessage()));
+            throw ex;
+        }
+    }
+
+    private void persistOne(PreparedOrder prepared) {
+        try {
+            markPersisted(orderService.persistPreparedOrders(List.of(prepared)).get(0));
+        } catch (RuntimeException ex) {
+            failed.increment();
+            statuses.put(prepared.orderNumber(),
+                    new OrderIngestionStatusDTO(prepared.orderNumber(), State.FAILED, null, ex.getMessage()));
+            log.error("Could not persist order {}", prepared.orderNumber(), ex);
+        }
+    }
+
+    private void markPersisted(OrderDTO order) {
+        persisted.increment();
+        statuses.put(order.getOrderNumber(),
+                new OrderIngestionStatusDTO(order.getOrderNumber(), State.PERSISTED, order.getId(), null));
+    }
+}
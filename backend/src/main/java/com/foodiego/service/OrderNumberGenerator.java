@@ -0,0 +1,63 @@
+package com.foodiego.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and
+ * a 12-bit per-millisecond sequence, rendered as fixed-width base 36 so that string order matches
+ * creation order. The (timestamp, sequence) pair lives in one AtomicLong and advances by CAS; when
+ * the clock stalls or steps back, or a millisecond's sequence is exhausted, the logical timestamp
+ * moves forward instead of blocking, so numbers stay unique and monotonic per node.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int WIDTH = Long.toString(Long.MAX_VALUE, 36).length();
+
+    private final long nodeId;
+    private final AtomicLong state = new AtomicLong();
+
+    public OrderNumberGenerator(@Value("${order-number.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order-number.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public String nextOrderNumber() {
+        String encoded = Long.toString(nextId(), 36).toUpperCase(Locale.ROOT);
+        return "ORD-" + "0".repeat(WIDTH - encoded.length()) + encoded;
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = current + 1;
+            } else {
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+}
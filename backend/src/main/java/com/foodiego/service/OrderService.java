@@ -1,133 +1,387 @@
 package com.foodiego.service;
 
+import com.foodiego.dto.BulkOrderStatusRequest;
+import com.foodiego.dto.BulkOrderStatusResultDTO;
 import com.foodiego.dto.CreateOrderRequest;
+import com.foodiego.dto.CursorPage;
+import com.foodiego.dto.MenuItemDTO;
 import com.foodiego.dto.OrderDTO;
+import com.foodiego.dto.OrderFilter;
 import com.foodiego.dto.OrderItemDTO;
+import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.event.OrderChangedEvent;
+import com.foodiego.exception.BadRequestException;
+import com.foodiego.exception.ConflictException;
 import com.foodiego.exception.ResourceNotFoundException;
-import com.foodiego.model.MenuItem;
 import com.foodiego.model.Order;
 import com.foodiego.model.Order.OrderStatus;
 import com.foodiego.model.OrderItem;
-import com.foodiego.model.Restaurant;
 import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.OrderArchiveRepository;
 import com.foodiego.repository.OrderRepository;
 import com.foodiego.repository.RestaurantRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
     private final RestaurantRepository restaurantRepository;
     private final MenuItemRepository menuItemRepository;
+    private final RestaurantService restaurantService;
+    private final MenuItemService menuItemService;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<OrderDTO> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
+    /**
+     * Keyset page over {@code (createdAt desc, id desc)}: each page seeks straight to the cursor
+     * position through a composite index, so deep pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> getOrders(OrderFilter filter, String cursor, int size, boolean includeHistory) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] position = decodeCursor(cursor);
+            afterCreatedAt = (LocalDateTime) position[0];
+            afterId = (Long) position[1];
+        }
 
-    public List<OrderDTO> getOrdersByRestaurant(Long restaurantId) {
-        return orderRepository.findByRestaurant_IdOrderByCreatedAtDesc(restaurantId).stream()
-                .map(this::convertToDTO)
+        List<Long> ids = orderRepository.findPageIds(filter, afterCreatedAt, afterId, pageSize + 1);
+        Map<Long, OrderDTO> loaded = new HashMap<>();
+        for (OrderDTO order : loadOrders(ids)) {
+            loaded.put(order.getId(), order);
+        }
+        List<OrderDTO> orders = ids.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        if (includeHistory) {
+            orders = withHistory(orders, orderArchiveRepository.findPage(filter, afterCreatedAt, afterId, pageSize + 1));
+        }
+
+        boolean hasMore = orders.size() > pageSize;
+        List<OrderDTO> content = hasMore ? new ArrayList<>(orders.subList(0, pageSize)) : orders;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderDTO last = content.get(content.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(content, nextCursor, hasMore);
     }
 
-    public List<OrderDTO> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatusOrderByCreatedAtDesc(status).stream()
+    @Transactional(readOnly = true)
+    public List<OrderDTO> getOrdersWithStatusIn(Collection<OrderStatus> statuses) {
+        return orderRepository.findWithItemsByStatusIn(statuses).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
-    public OrderDTO getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+    public OrderDTO getOrderById(Long id, boolean includeHistory) {
+        return orderRepository.findById(id)
+                .map(this::convertToDTO)
+                .or(() -> includeHistory ? orderArchiveRepository.findById(id) : Optional.empty())
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
-        return convertToDTO(order);
     }
 
-    public OrderDTO getOrderByOrderNumber(String orderNumber) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+    public OrderDTO getOrderByOrderNumber(String orderNumber, boolean includeHistory) {
+        return orderRepository.findByOrderNumber(orderNumber)
+                .map(this::convertToDTO)
+                .or(() -> includeHistory ? orderArchiveRepository.findByOrderNumber(orderNumber) : Optional.empty())
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with order number: " + orderNumber));
-        return convertToDTO(order);
+    }
+
+    /**
+     * Id, restaurant, status and timestamps only: enough to version an order and its delivery
+     * estimate without loading its items.
+     */
+    public Optional<OrderDTO> getOrderHeader(Long id) {
+        return orderRepository.findHeaderById(id).stream()
+                .findFirst()
+                .map(this::toHeader);
+    }
+
+    public Optional<OrderDTO> getOrderHeaderByNumber(String orderNumber) {
+        return orderRepository.findHeaderByOrderNumber(orderNumber).stream()
+                .findFirst()
+                .map(this::toHeader);
+    }
+
+    public Optional<Long> findOrderIdByNumber(String orderNumber) {
+        return orderRepository.findHeaderByOrderNumber(orderNumber).stream()
+                .findFirst()
+                .map(row -> (Long) row[0]);
+    }
+
+    private OrderDTO toHeader(Object[] row) {
+        OrderDTO header = new OrderDTO();
+        header.setId((Long) row[0]);
+        header.setRestaurantId((Long) row[1]);
+        header.setStatus((OrderStatus) row[2]);
+        header.setCreatedAt((LocalDateTime) row[3]);
+        header.setUpdatedAt((LocalDateTime) row[4]);
+        return header;
     }
 
     @Transactional
     public OrderDTO createOrder(CreateOrderRequest request) {
-        Restaurant restaurant = restaurantRepository.findById(request.getRestaurantId())
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + request.getRestaurantId()));
+        return persistPreparedOrders(List.of(prepareOrder(request))).get(0);
+    }
 
-        Order order = new Order();
-        order.setOrderNumber(generateOrderNumber());
-        order.setRestaurant(restaurant);
-        order.setCustomerName(request.getCustomerName());
-        order.setCustomerPhone(request.getCustomerPhone());
-        order.setCustomerAddress(request.getCustomerAddress());
-        order.setNotes(request.getNotes());
-        order.setStatus(OrderStatus.PENDING);
+    /**
+     * Validates the request against the cached restaurant and menu and assigns the order number,
+     * without touching the database when both caches are warm.
+     */
+    public PreparedOrder prepareOrder(CreateOrderRequest request) {
+        Long restaurantId = request.getRestaurantId();
+        RestaurantDTO restaurant = restaurantService.getRestaurantById(restaurantId);
 
-        List<OrderItem> orderItems = new ArrayList<>();
-        double total = 0.0;
+        // One cached (or single-query) read resolves every line; validation happens in memory
+        Map<Long, MenuItemDTO> menu = new HashMap<>();
+        for (MenuItemDTO menuItem : menuItemService.getMenuItemsByRestaurant(restaurantId)) {
+            menu.put(menuItem.getId(), menuItem);
+        }
+
+        List<PreparedOrder.Line> lines = new ArrayList<>();
+        long subtotalCents = 0;
 
         for (CreateOrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Menu item not found with id: " + itemRequest.getMenuItemId()));
+            MenuItemDTO menuItem = menu.get(itemRequest.getMenuItemId());
+            if (menuItem == null) {
+                throw new ResourceNotFoundException("Menu item not found with id: " + itemRequest.getMenuItemId()
+                        + " in restaurant " + restaurantId);
+            }
+            if (Boolean.FALSE.equals(menuItem.getAvailable())) {
+                throw new BadRequestException("Menu item is not available: " + menuItem.getName());
+            }
+            if (itemRequest.getQuantity() == null || itemRequest.getQuantity() < 1) {
+                throw new BadRequestException("Quantity must be at least 1 for menu item " + menuItem.getId());
+            }
 
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setMenuItem(menuItem);
-            orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.syncMenuItemData();
+            lines.add(new PreparedOrder.Line(menuItem.getId(), menuItem.getName(), menuItem.getDescription(),
+                    menuItem.getPrice(), menuItem.getImage(), menuItem.getCategory(), itemRequest.getQuantity()));
+            subtotalCents += PricingService.toCents(menuItem.getPrice()) * itemRequest.getQuantity();
+        }
 
-            orderItems.add(orderItem);
-            total += menuItem.getPrice() * itemRequest.getQuantity();
+        if (subtotalCents < PricingService.toCents(restaurant.getMinOrder())) {
+            throw new BadRequestException(String.format("Order subtotal %.2f is below the minimum order of %.2f",
+                    PricingService.fromCents(subtotalCents), restaurant.getMinOrder()));
         }
+        long totalCents = subtotalCents + PricingService.toCents(restaurant.getDeliveryFee());
+
+        return new PreparedOrder(orderNumberGenerator.nextOrderNumber(), restaurantId, restaurant.getName(),
+                request.getCustomerName(), request.getCustomerPhone(), request.getCustomerAddress(),
+                request.getNotes(), PricingService.fromCents(totalCents), lines);
+    }
+
+    @Transactional
+    public List<OrderDTO> persistPreparedOrders(List<PreparedOrder> preparedOrders) {
+        List<Order> orders = new ArrayList<>(preparedOrders.size());
+        for (PreparedOrder prepared : preparedOrders) {
+            Order order = new Order();
+            order.setOrderNumber(prepared.orderNumber());
+            order.setRestaurant(restaurantRepository.getReferenceById(prepared.restaurantId()));
+            order.setCustomerName(prepared.customerName());
+            order.setCustomerPhone(prepared.customerPhone());
+            order.setCustomerAddress(prepared.customerAddress());
+            order.setNotes(prepared.notes());
+            order.setStatus(OrderStatus.PENDING);
+            order.setTotal(prepared.total());
 
-        total += restaurant.getDeliveryFee();
-        order.setTotal(total);
-        order.setItems(orderItems);
+            List<OrderItem> orderItems = new ArrayList<>(prepared.lines().size());
+            for (PreparedOrder.Line line : prepared.lines()) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(order);
+                orderItem.setMenuItem(menuItemRepository.getReferenceById(line.menuItemId()));
+                orderItem.setMenuItemName(line.name());
+                orderItem.setMenuItemDescription(line.description());
+                orderItem.setPrice(line.price());
+                orderItem.setImage(line.image());
+                orderItem.setCategory(line.category());
+                orderItem.setQuantity(line.quantity());
+                orderItems.add(orderItem);
+            }
+            order.setItems(orderItems);
+            orders.add(order);
+        }
 
-        order = orderRepository.save(order);
-        return convertToDTO(order);
+        // Sequence ids let every order and item in the group flush as JDBC batches at commit
+        List<OrderDTO> results = new ArrayList<>(orders.size());
+        List<Order> saved = orderRepository.saveAll(orders);
+        for (int i = 0; i < saved.size(); i++) {
+            PreparedOrder prepared = preparedOrders.get(i);
+            OrderDTO result = convertToDTO(saved.get(i), prepared.restaurantName());
+            eventPublisher.publishEvent(new OrderChangedEvent(
+                    OrderChangedEvent.Type.CREATED, result.getId(), prepared.restaurantId(), null, result));
+            results.add(result);
+        }
+        return results;
     }
 
+    /**
+     * Moves one order along the status state machine with a version-checked conditional UPDATE.
+     * When {@code expectedVersion} is omitted the version just read is used, so a concurrent
+     * writer still causes a conflict instead of a silent overwrite.
+     */
     @Transactional
-    public OrderDTO updateOrderStatus(Long id, OrderStatus status) {
-        Order order = orderRepository.findById(id)
+    public OrderDTO updateOrderStatus(Long id, OrderStatus status, Long expectedVersion) {
+        Object[] state = orderRepository.findStateById(id).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        OrderStatus previousStatus = (OrderStatus) state[1];
+        Long version = (Long) state[2];
+
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new ConflictException("Order " + id + " is at version " + version
+                    + ", expected " + expectedVersion);
+        }
+        if (!previousStatus.canTransitionTo(status)) {
+            throw new ConflictException("Order " + id + " cannot move from " + previousStatus + " to " + status);
+        }
+        if (orderRepository.transitionStatus(id, version, OrderStatus.predecessorsOf(status), status,
+                LocalDateTime.now()) == 0) {
+            throw new ConflictException("Order " + id + " was modified concurrently; reload and retry");
+        }
 
-        order.setStatus(status);
-        order = orderRepository.save(order);
-        return convertToDTO(order);
+        OrderDTO result = loadOrders(List.of(id)).get(0);
+        eventPublisher.publishEvent(new OrderChangedEvent(
+                OrderChangedEvent.Type.STATUS_CHANGED, id, result.getRestaurantId(), previousStatus, result));
+        return result;
+    }
+
+    /**
+     * Moves many orders to one status with a single UPDATE. Rows are locked while eligibility is
+     * checked, so every order is either moved or reported as a conflict with its current state.
+     */
+    @Transactional
+    public BulkOrderStatusResultDTO updateOrderStatuses(OrderStatus status, List<BulkOrderStatusRequest.OrderRef> refs) {
+        Map<Long, Long> expectedVersions = new LinkedHashMap<>();
+        for (BulkOrderStatusRequest.OrderRef ref : refs) {
+            expectedVersions.put(ref.getId(), ref.getExpectedVersion());
+        }
+
+        Map<Long, Object[]> states = new HashMap<>();
+        for (Object[] row : orderRepository.lockStatesByIdIn(expectedVersions.keySet())) {
+            states.put(((Number) row[0]).longValue(), row);
+        }
+
+        BulkOrderStatusResultDTO result = new BulkOrderStatusResultDTO();
+        Map<Long, OrderStatus> previousStatuses = new HashMap<>();
+        expectedVersions.forEach((id, expectedVersion) -> {
+            Object[] row = states.get(id);
+            if (row == null) {
+                result.getConflicts().add(new BulkOrderStatusResultDTO.Conflict(id, null, null, "Order not found"));
+                return;
+            }
+            OrderStatus current = OrderStatus.valueOf((String) row[1]);
+            long version = ((Number) row[2]).longValue();
+            if (expectedVersion != null && expectedVersion != version) {
+                result.getConflicts().add(new BulkOrderStatusResultDTO.Conflict(id, current, version,
+                        "Expected version " + expectedVersion));
+            } else if (!current.canTransitionTo(status)) {
+                result.getConflicts().add(new BulkOrderStatusResultDTO.Conflict(id, current, version,
+                        "Cannot move from " + current + " to " + status));
+            } else {
+                previousStatuses.put(id, current);
+            }
+        });
+
+        if (!previousStatuses.isEmpty()) {
+            orderRepository.transitionStatuses(previousStatuses.keySet(), OrderStatus.predecessorsOf(status), status,
+                    LocalDateTime.now());
+            for (OrderDTO order : loadOrders(previousStatuses.keySet())) {
+                result.getUpdated().add(order);
+                eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.Type.STATUS_CHANGED,
+                        order.getId(), order.getRestaurantId(), previousStatuses.get(order.getId()), order));
+            }
+        }
+        return result;
     }
 
     @Transactional
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Order not found with id: " + id);
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+        OrderDTO lastState = convertToDTO(order);
+        orderRepository.delete(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(
+                OrderChangedEvent.Type.DELETED, id, lastState.getRestaurantId(), lastState.getStatus(), lastState));
+    }
+
+    // Archived orders are closed and older than the archive cutoff, but old orders can still be
+    // active in the hot tables, so the two newest-first pages are merged rather than concatenated
+    private List<OrderDTO> withHistory(List<OrderDTO> orders, List<OrderDTO> archived) {
+        List<OrderDTO> merged = new ArrayList<>(orders.size() + archived.size());
+        merged.addAll(orders);
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(OrderDTO::getCreatedAt, Comparator.reverseOrder())
+                .thenComparing(OrderDTO::getId, Comparator.reverseOrder()));
+        return merged;
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Object[] {
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1))
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
         }
-        orderRepository.deleteById(id);
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private List<OrderDTO> loadOrders(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return orderRepository.findWithItemsByIdIn(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
     private OrderDTO convertToDTO(Order order) {
+        return convertToDTO(order, order.getRestaurantName());
+    }
+
+    private OrderDTO convertToDTO(Order order, String restaurantName) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setOrderNumber(order.getOrderNumber());
         dto.setRestaurantId(order.getRestaurantId());
-        dto.setRestaurantName(order.getRestaurantName());
+        dto.setRestaurantName(restaurantName);
         dto.setTotal(order.getTotal());
         dto.setStatus(order.getStatus());
+        dto.setVersion(order.getVersion());
         dto.setCustomerName(order.getCustomerName());
         dto.setCustomerPhone(order.getCustomerPhone());
         dto.setCustomerAddress(order.getCustomerAddress());
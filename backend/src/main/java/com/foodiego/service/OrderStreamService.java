@@ -0,0 +1,199 @@
+package com.foodiego.service;
+
+import com.foodiego.event.OrderChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes committed order changes to restaurant dashboards over Server-Sent Events. Each restaurant
+ * channel keeps a short history so reconnecting clients resume from {@code Last-Event-ID}; a client
+ * whose id is no longer covered, or comes from before a restart, gets a {@code resync} event. Each
+ * subscriber has a bounded queue drained on a small writer pool; a subscriber that falls behind is
+ * disconnected and catches up from the history on reconnect, so a slow client never blocks commits.
+ */
+@Service
+@Slf4j
+public class OrderStreamService {
+
+    private final int historySize;
+    private final int subscriberBufferSize;
+    private final long emitterTimeoutMillis;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService writers;
+
+    public OrderStreamService(@Value("${order-stream.history-size:256}") int historySize,
+                              @Value("${order-stream.subscriber-buffer-size:64}") int subscriberBufferSize,
+                              @Value("${order-stream.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                              @Value("${order-stream.writer-threads:4}") int writerThreads) {
+        this.historySize = historySize;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long restaurantId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Channel channel = channels.computeIfAbsent(restaurantId, id -> new Channel());
+        Subscriber subscriber = new Subscriber(emitter, channel);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        synchronized (channel) {
+            channel.subscribers.add(subscriber);
+            if (lastEventId != null) {
+                // Ids outside this channel's range were issued before a restart, so the events in
+                // between were never seen here; an id older than the history means they were trimmed
+                boolean unknown = lastEventId < channel.start || lastEventId > channel.sequence;
+                boolean trimmed = !channel.history.isEmpty() && channel.history.peekFirst().id() > lastEventId + 1;
+                if (unknown || trimmed) {
+                    subscriber.offer(new StreamEvent(channel.sequence, "resync", Map.of("restaurantId", restaurantId)));
+                } else {
+                    channel.history.stream()
+                            .filter(event -> event.id() > lastEventId)
+                            .forEach(subscriber::offer);
+                }
+            }
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        Channel channel = channels.get(event.getRestaurantId());
+        if (channel == null) {
+            return;
+        }
+
+        String name = switch (event.getType()) {
+            case CREATED -> "order-created";
+            case STATUS_CHANGED -> "order-status-changed";
+            case DELETED -> "order-deleted";
+        };
+        Object data = event.getType() == OrderChangedEvent.Type.DELETED
+                ? Map.of("id", event.getOrderId())
+                : event.getOrder();
+
+        synchronized (channel) {
+            StreamEvent streamEvent = new StreamEvent(++channel.sequence, name, data);
+            channel.history.addLast(streamEvent);
+            if (channel.history.size() > historySize) {
+                channel.history.removeFirst();
+            }
+            channel.subscribers.forEach(subscriber -> subscriber.offer(streamEvent));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::heartbeat));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        writers.shutdownNow();
+    }
+
+    private static final class Channel {
+        // Starts at the creation time in microseconds, above any id a previous run handed out
+        private final long start = System.currentTimeMillis() * 1000;
+        private long sequence = start;
+        private final Deque<StreamEvent> history = new ArrayDeque<>();
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    }
+
+    private record StreamEvent(long id, String name, Object data) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Channel channel;
+        private final BlockingQueue<StreamEvent> queue = new ArrayBlockingQueue<>(subscriberBufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatPending = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Channel channel) {
+            this.emitter = emitter;
+            this.channel = channel;
+        }
+
+        void offer(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Order stream subscriber fell behind; disconnecting so it resumes from history");
+                close();
+                emitter.complete();
+                return;
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            if (!closed && heartbeatPending.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (heartbeatPending.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                StreamEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.id()))
+                            .name(event.name())
+                            .data(event.data()));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close();
+            } finally {
+                draining.set(false);
+                if (!closed && (!queue.isEmpty() || heartbeatPending.get())) {
+                    schedule();
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            channel.subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.foodiego.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.dto.OutboxStatsDTO;
+import com.foodiego.event.MenuItemChangedEvent;
+import com.foodiego.event.MenuItemsImportedEvent;
+import com.foodiego.event.OrderChangedEvent;
+import com.foodiego.event.OutboxMessage;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.repository.OutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for order and catalog changes. Domain events are buffered per transaction
+ * and written to {@code outbox_events} in one batch just before commit, so a row exists exactly
+ * when the change committed. A single relay (guarded by an advisory lock) moves committed rows onto
+ * the {@link EventBus} in id order and marks them delivered once every consumer has processed them.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+
+    private static final int PURGE_CHUNK = 5000;
+
+    private final OutboxRepository outboxRepository;
+    private final EventBus eventBus;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean relayEnabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+    private final int nodeId;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Queue<Long> deliveredIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong relayedTotal = new AtomicLong();
+    private final AtomicLong deliveredTotal = new AtomicLong();
+    private final AtomicLong relayRuns = new AtomicLong();
+    private volatile int lastRunRelayed;
+    private volatile long lastRunMillis;
+    private volatile double lastRunEventsPerSecond;
+    private volatile double peakEventsPerSecond;
+    private volatile LocalDateTime lastRunAt;
+
+    public OutboxService(OutboxRepository outboxRepository,
+                         EventBus eventBus,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${outbox.relay.enabled:true}") boolean relayEnabled,
+                         @Value("${outbox.relay.batch-size:500}") int batchSize,
+                         @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                         @Value("${outbox.retention:1d}") Duration retention,
+                         @Value("${order-number.node-id:0}") int nodeId) {
+        this.outboxRepository = outboxRepository;
+        this.eventBus = eventBus;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayEnabled = relayEnabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+        this.nodeId = nodeId;
+        eventBus.onDelivered(deliveredIds::addAll);
+    }
+
+    @PostConstruct
+    public void createOutboxTable() {
+        try {
+            outboxRepository.createTable();
+        } catch (DataAccessException ex) {
+            log.warn("Could not create outbox table: {}", ex.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUndelivered() {
+        if (!relayEnabled) {
+            return;
+        }
+        try {
+            int reset = outboxRepository.resetUndelivered(nodeId);
+            if (reset > 0) {
+                log.info("Re-relaying {} outbox events that were not delivered before shutdown", reset);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not reset undelivered outbox events: {}", ex.getMessage());
+        }
+    }
+
+    // Plain listeners run synchronously inside the publishing transaction
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        append("order", event.getOrderId(), "order." + event.getType().name().toLowerCase(Locale.ROOT),
+                event.getOrder());
+    }
+
+    @EventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        append("restaurant", event.getRestaurantId(), event.isDeleted() ? "restaurant.deleted" : "restaurant.updated",
+                event.getRestaurant());
+    }
+
+    // A deletion has no item left to send, but consumers still need to know whose menu changed
+    @EventListener
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        if (event.isDeleted()) {
+            append("menu_item", event.getMenuItemId(), "menu_item.deleted",
+                    Map.of("id", event.getMenuItemId(), "restaurantId", event.getRestaurantId()));
+        } else {
+            append("menu_item", event.getMenuItemId(), "menu_item.updated", event.getMenuItem());
+        }
+    }
+
+    // Downstream consumers keep seeing one message per item
+    @EventListener
+    public void onMenuItemsImported(MenuItemsImportedEvent event) {
+        event.getMenuItems().forEach(menuItem -> append("menu_item", menuItem.getId(), "menu_item.updated", menuItem));
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (!relayEnabled) {
+            return;
+        }
+        markDelivered();
+
+        long started = System.nanoTime();
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                Integer relayed = transactionTemplate.execute(status -> relayBatch());
+                total += relayed != null ? relayed : 0;
+                if (relayed == null || relayed < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Outbox relay stopped after {} events: {}", total, ex.getMessage());
+        }
+        if (total > 0) {
+            recordRun(total, System.nanoTime() - started);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}",
+               initialDelayString = "${outbox.purge-initial-delay-ms:300000}")
+    public void purgeDelivered() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        try {
+            int deleted;
+            do {
+                deleted = outboxRepository.deleteDeliveredBefore(cutoff, PURGE_CHUNK);
+                purged += deleted;
+            } while (deleted == PURGE_CHUNK);
+        } catch (DataAccessException ex) {
+            log.warn("Outbox purge stopped after {} rows: {}", purged, ex.getMessage());
+        }
+        if (purged > 0) {
+            log.info("Purged {} delivered outbox events older than {}", purged, cutoff);
+        }
+    }
+
+    public OutboxStatsDTO getStats() {
+        return new OutboxStatsDTO(relayEnabled, outboxRepository.countUnrelayed(), relayedTotal.get(),
+                deliveredTotal.get(), relayRuns.get(), lastRunRelayed, lastRunMillis, lastRunEventsPerSecond,
+                peakEventsPerSecond, lastRunAt, eventBus.getPartitionStats(), eventBus.getConsumerStats());
+    }
+
+    // A partition that is full stops accepting for the rest of the batch so later changes of the
+    // same aggregates are never relayed ahead of earlier ones
+    private int relayBatch() {
+        if (!outboxRepository.tryRelayLock()) {
+            return 0;
+        }
+        List<OutboxMessage> messages = outboxRepository.findUnrelayed(batchSize);
+        List<Long> relayed = new ArrayList<>(messages.size());
+        Set<Integer> blocked = new HashSet<>();
+        for (OutboxMessage message : messages) {
+            int partition = eventBus.partitionOf(message.aggregateKey());
+            if (blocked.contains(partition)) {
+                continue;
+            }
+            if (eventBus.publish(message)) {
+                relayed.add(message.outboxId());
+            } else {
+                blocked.add(partition);
+            }
+        }
+        if (!relayed.isEmpty()) {
+            outboxRepository.markRelayed(relayed, nodeId);
+        }
+        return blocked.isEmpty() ? messages.size() : relayed.size();
+    }
+
+    private void markDelivered() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while (ids.size() < batchSize * maxBatchesPerRun && (id = deliveredIds.poll()) != null) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                outboxRepository.markDelivered(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+            }
+            deliveredTotal.addAndGet(ids.size());
+        } catch (DataAccessException ex) {
+            // Unmarked rows are re-relayed after a restart, which consumers already tolerate
+            log.warn("Could not mark {} outbox events delivered: {}", ids.size(), ex.getMessage());
+        }
+    }
+
+    private void recordRun(int relayed, long elapsedNanos) {
+        relayedTotal.addAndGet(relayed);
+        relayRuns.incrementAndGet();
+        lastRunRelayed = relayed;
+        lastRunMillis = elapsedNanos / 1_000_000;
+        lastRunEventsPerSecond = relayed * 1_000_000_000.0 / Math.max(1, elapsedNanos);
+        peakEventsPerSecond = Math.max(peakEventsPerSecond, lastRunEventsPerSecond);
+        lastRunAt = LocalDateTime.now();
+    }
+
+    private void append(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxMessage message = new OutboxMessage(0L, aggregateType, String.valueOf(aggregateId), eventType,
+                toJson(payload), LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRepository.insertAll(List.of(message));
+            return;
+        }
+        // getSynchronizations() only sees the current transaction, so REQUIRES_NEW gets its own buffer
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Buffer buffer) {
+                buffer.messages.add(message);
+                return;
+            }
+        }
+        Buffer buffer = new Buffer();
+        buffer.messages.add(message);
+        TransactionSynchronizationManager.registerSynchronization(buffer);
+    }
+
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize outbox payload", ex);
+        }
+    }
+
+    private final class Buffer implements TransactionSynchronization {
+        private final List<OutboxMessage> messages = new ArrayList<>();
+
+        // Flushing first takes the aggregates' row locks, so concurrent writers to one aggregate
+        // draw outbox ids in the order they commit
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            entityManager.flush();
+            outboxRepository.insertAll(messages);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.foodiego.service;
+
+import java.util.List;
+
+/**
+ * A validated order that has its number and price snapshot assigned but is not yet persisted.
+ * It holds no entities, so it can be handed to another thread and written in a later transaction.
+ */
+public record PreparedOrder(
+        String orderNumber,
+        Long restaurantId,
+        String restaurantName,
+        String customerName,
+        String customerPhone,
+        String customerAddress,
+        String notes,
+        double total,
+        List<Line> lines
+) {
+
+    public record Line(
+            Long menuItemId,
+            String name,
+            String description,
+            Double price,
+            String image,
+            String category,
+            int quantity
+    ) {
+    }
+}
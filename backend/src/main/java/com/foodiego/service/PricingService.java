@@ -0,0 +1,215 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.CartQuoteDTO;
+import com.foodiego.dto.CartQuoteRequest;
+import com.foodiego.dto.MenuItemDTO;
+import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.event.MenuItemChangedEvent;
+import com.foodiego.event.MenuItemsImportedEvent;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.exception.BadRequestException;
+import com.foodiego.exception.ResourceNotFoundException;
+import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.RestaurantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quotes carts from a per-restaurant price table held in memory. Tables are immutable and replaced
+ * copy-on-write from catalog events, so quoting never takes a lock or touches the database. Events
+ * that arrive while the startup load runs are held back and replayed on top of the loaded tables.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PricingService {
+
+    private static final int MAX_QUANTITY = 999;
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+
+    private final Map<Long, PriceTable> tables = new ConcurrentHashMap<>();
+
+    private final Object rebuildLock = new Object();
+    // Non-null while rebuild() loads; guarded by rebuildLock
+    private List<Runnable> heldBack;
+
+    record ItemPrice(String name, long priceCents, boolean available) {
+    }
+
+    record PriceTable(String name, long deliveryFeeCents, long minOrderCents, boolean open,
+                      Map<Long, ItemPrice> items) {
+
+        PriceTable withHeader(RestaurantDTO restaurant) {
+            return new PriceTable(restaurant.getName(), toCents(restaurant.getDeliveryFee()),
+                    toCents(restaurant.getMinOrder()), Boolean.TRUE.equals(restaurant.getIsOpen()), items);
+        }
+
+        PriceTable withItem(Long id, ItemPrice item) {
+            Map<Long, ItemPrice> copy = new HashMap<>(items);
+            if (item == null) {
+                copy.remove(id);
+            } else {
+                copy.put(id, item);
+            }
+            return new PriceTable(name, deliveryFeeCents, minOrderCents, open, Map.copyOf(copy));
+        }
+
+        PriceTable withItems(Map<Long, ItemPrice> changed) {
+            Map<Long, ItemPrice> copy = new HashMap<>(items);
+            copy.putAll(changed);
+            return new PriceTable(name, deliveryFeeCents, minOrderCents, open, Map.copyOf(copy));
+        }
+    }
+
+    public CartQuoteDTO quote(CartQuoteRequest request) {
+        PriceTable table = tables.get(request.getRestaurantId());
+        if (table == null) {
+            throw new ResourceNotFoundException("Restaurant not found with id: " + request.getRestaurantId());
+        }
+
+        List<CartQuoteDTO.LineQuote> lines = new ArrayList<>();
+        List<CartQuoteDTO.UnavailableItem> unavailable = new ArrayList<>();
+        long subtotal = 0;
+
+        for (CartQuoteRequest.Line line : request.getItems()) {
+            Integer quantity = line.getQuantity();
+            if (quantity == null || quantity < 1 || quantity > MAX_QUANTITY) {
+                throw new BadRequestException("Quantity must be between 1 and " + MAX_QUANTITY
+                        + " for menu item " + line.getMenuItemId());
+            }
+            ItemPrice item = table.items().get(line.getMenuItemId());
+            if (item == null) {
+                unavailable.add(new CartQuoteDTO.UnavailableItem(line.getMenuItemId(), null,
+                        CartQuoteDTO.Reason.NOT_FOUND));
+                continue;
+            }
+            if (!item.available()) {
+                unavailable.add(new CartQuoteDTO.UnavailableItem(line.getMenuItemId(), item.name(),
+                        CartQuoteDTO.Reason.UNAVAILABLE));
+                continue;
+            }
+            long lineTotal = Math.multiplyExact(item.priceCents(), quantity.longValue());
+            subtotal = Math.addExact(subtotal, lineTotal);
+            lines.add(new CartQuoteDTO.LineQuote(line.getMenuItemId(), item.name(), quantity,
+                    item.priceCents(), lineTotal));
+        }
+
+        long shortfall = Math.max(0, table.minOrderCents() - subtotal);
+        long total = lines.isEmpty() ? 0 : subtotal + table.deliveryFeeCents();
+        boolean orderable = table.open() && !lines.isEmpty() && unavailable.isEmpty() && shortfall == 0;
+
+        return new CartQuoteDTO(request.getRestaurantId(), table.name(), table.open(), lines, unavailable,
+                subtotal, table.deliveryFeeCents(), total, table.minOrderCents(), shortfall, orderable);
+    }
+
+    public static long toCents(Double amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    public static double fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2).doubleValue();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            heldBack = new ArrayList<>();
+        }
+
+        Map<Long, Map<Long, ItemPrice>> itemsByRestaurant = new HashMap<>();
+        Map<Long, PriceTable> loaded = new HashMap<>();
+        try {
+            for (Object[] row : menuItemRepository.findPricingRows()) {
+                itemsByRestaurant.computeIfAbsent((Long) row[1], id -> new HashMap<>())
+                        .put((Long) row[0], new ItemPrice((String) row[2], toCents((Double) row[3]),
+                                !Boolean.FALSE.equals(row[4])));
+            }
+            for (Object[] row : restaurantRepository.findPricingRows()) {
+                Long id = (Long) row[0];
+                loaded.put(id, new PriceTable((String) row[1], toCents((Double) row[2]), toCents((Double) row[3]),
+                        Boolean.TRUE.equals(row[4]), Map.copyOf(itemsByRestaurant.getOrDefault(id, Map.of()))));
+            }
+        } finally {
+            // Install per restaurant, then replay what committed during the load: the snapshot may predate it
+            synchronized (rebuildLock) {
+                tables.putAll(loaded);
+                heldBack.forEach(Runnable::run);
+                heldBack = null;
+            }
+        }
+        log.info("Price tables built: {} restaurants, {} menu items", loaded.size(),
+                itemsByRestaurant.values().stream().mapToInt(Map::size).sum());
+    }
+
+    @TransactionalEventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        apply(() -> {
+            if (event.isDeleted()) {
+                tables.remove(event.getRestaurantId());
+                return;
+            }
+            RestaurantDTO restaurant = event.getRestaurant();
+            tables.compute(event.getRestaurantId(), (id, table) -> table == null
+                    ? new PriceTable(null, 0, 0, false, Map.of()).withHeader(restaurant)
+                    : table.withHeader(restaurant));
+        });
+    }
+
+    @TransactionalEventListener
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        ItemPrice item = event.isDeleted() ? null : toItemPrice(event.getMenuItem());
+        apply(() -> {
+            if (tables.computeIfPresent(event.getRestaurantId(),
+                    (id, table) -> table.withItem(event.getMenuItemId(), item)) == null) {
+                log.debug("Menu item {} changed for unknown restaurant {}", event.getMenuItemId(),
+                        event.getRestaurantId());
+            }
+        });
+    }
+
+    // One copy of the table per import chunk instead of one per row
+    @TransactionalEventListener
+    public void onMenuItemsImported(MenuItemsImportedEvent event) {
+        Map<Long, ItemPrice> changed = new HashMap<>();
+        for (MenuItemDTO menuItem : event.getMenuItems()) {
+            changed.put(menuItem.getId(), toItemPrice(menuItem));
+        }
+        apply(() -> {
+            if (tables.computeIfPresent(event.getRestaurantId(), (id, table) -> table.withItems(changed)) == null) {
+                log.debug("{} menu items imported for unknown restaurant {}", changed.size(), event.getRestaurantId());
+            }
+        });
+    }
+
+    private void apply(Runnable update) {
+        synchronized (rebuildLock) {
+            if (heldBack != null) {
+                heldBack.add(update);
+                return;
+            }
+        }
+        update.run();
+    }
+
+    private static ItemPrice toItemPrice(MenuItemDTO menuItem) {
+        return new ItemPrice(menuItem.getName(), toCents(menuItem.getPrice()),
+                !Boolean.FALSE.equals(menuItem.getAvailable()));
+    }
+}
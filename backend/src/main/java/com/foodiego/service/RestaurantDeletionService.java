@@ -0,0 +1,261 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.RestaurantDeletionStatusDTO;
+import com.foodiego.dto.RestaurantDeletionStatusDTO.Phase;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.exception.ResourceNotFoundException;
+import com.foodiego.repository.RestaurantDeletionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Removes soft-deleted restaurants in the background: menu items first, then orders with their
+ * items, status transitions, rollups and archived orders, then the restaurant row, one bounded chunk
+ * per transaction. Readers stop seeing the restaurant as soon as {@code deleted_at} is set. Pending
+ * deletions are found again from that column by a periodic sweep, so a deletion interrupted by a
+ * restart resumes where it stopped; the restaurant row therefore goes last.
+ */
+@Service
+@Slf4j
+public class RestaurantDeletionService {
+
+    // Floor on the wait while the only orders left are locked by another transaction
+    private static final long LOCKED_ORDERS_BACKOFF_MILLIS = 500;
+
+    private final RestaurantDeletionRepository deletionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    private final Cache<Long, RestaurantDeletionStatusDTO> statuses;
+    private final Set<Long> scheduled = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker;
+
+    public RestaurantDeletionService(RestaurantDeletionRepository deletionRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${restaurant-deletion.chunk-size:1000}") int chunkSize,
+                                     @Value("${restaurant-deletion.pause-between-chunks-ms:20}") long pauseMillis,
+                                     @Value("${restaurant-deletion.status-ttl:24h}") Duration statusTtl) {
+        this.deletionRepository = deletionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(statusTtl)
+                .build();
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "restaurant-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public RestaurantDeletionStatusDTO getStatus(Long restaurantId) {
+        RestaurantDeletionStatusDTO status = statuses.getIfPresent(restaurantId);
+        if (status == null) {
+            LocalDateTime deletedAt = deletionRepository.findDeletedAt(restaurantId)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "No deletion in progress for restaurant with id: " + restaurantId));
+            if (deletedAt == null) {
+                throw new ResourceNotFoundException("No deletion in progress for restaurant with id: " + restaurantId);
+            }
+            status = newStatus(restaurantId, deletedAt);
+        }
+
+        RestaurantDeletionStatusDTO snapshot;
+        synchronized (status) {
+            snapshot = copy(status);
+        }
+        if (snapshot.getPhase() != Phase.COMPLETED) {
+            snapshot.setRemainingOrders(deletionRepository.countOrders(restaurantId));
+            snapshot.setRemainingArchivedOrders(deletionRepository.countArchivedOrders(restaurantId));
+            snapshot.setRemainingMenuItems(deletionRepository.countMenuItems(restaurantId));
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.isDeleted()) {
+            schedule(event.getRestaurantId(), LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${restaurant-deletion.sweep-interval-ms:60000}",
+               initialDelayString = "${restaurant-deletion.sweep-initial-delay-ms:30000}")
+    public void resumePending() {
+        try {
+            for (Long restaurantId : deletionRepository.findPendingRestaurantIds()) {
+                schedule(restaurantId, null);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not look up pending restaurant deletions: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void schedule(Long restaurantId, LocalDateTime requestedAt) {
+        if (!scheduled.add(restaurantId)) {
+            return;
+        }
+        RestaurantDeletionStatusDTO status = statuses.get(restaurantId, id -> newStatus(id, requestedAt));
+        worker.execute(() -> {
+            try {
+                run(restaurantId, status);
+            } finally {
+                scheduled.remove(restaurantId);
+            }
+        });
+    }
+
+    private void run(Long restaurantId, RestaurantDeletionStatusDTO status) {
+        update(status, Phase.DELETING_MENU_ITEMS, null);
+        try {
+            // Menu items go first: they are few, and the menu listing already hides them
+            while (true) {
+                Integer deleted = transactionTemplate.execute(tx -> {
+                    List<Long> ids = deletionRepository.lockMenuItemChunk(restaurantId, chunkSize);
+                    return ids.isEmpty() ? 0 : deletionRepository.deleteMenuItems(ids);
+                });
+                if (deleted == null || deleted == 0) {
+                    break;
+                }
+                synchronized (status) {
+                    status.setDeletedMenuItems(status.getDeletedMenuItems() + deleted);
+                }
+                pause();
+            }
+
+            update(status, Phase.DELETING_ORDERS, null);
+            while (true) {
+                int[] deleted = transactionTemplate.execute(tx -> {
+                    List<Long> ids = deletionRepository.lockOrderChunk(restaurantId, chunkSize);
+                    return ids.isEmpty() ? new int[] {0, 0} : deletionRepository.deleteOrders(ids);
+                });
+                if (deleted == null || deleted[0] == 0) {
+                    // SKIP LOCKED passes over orders another transaction holds, such as an archiver
+                    // batch locked before the soft delete; wait until it commits, so its rows are
+                    // already in the archive when that is purged below
+                    if (deletionRepository.countOrders(restaurantId) == 0) {
+                        break;
+                    }
+                    Thread.sleep(Math.max(pauseMillis, LOCKED_ORDERS_BACKOFF_MILLIS));
+                    continue;
+                } else {
+                    synchronized (status) {
+                        status.setDeletedOrders(status.getDeletedOrders() + deleted[0]);
+                        status.setDeletedOrderItems(status.getDeletedOrderItems() + deleted[1]);
+                    }
+                }
+                pause();
+            }
+
+            update(status, Phase.DELETING_STATUS_TRANSITIONS, null);
+            purge(status, () -> deletionRepository.deleteTransitionChunk(restaurantId, chunkSize),
+                    deleted -> status.setDeletedStatusTransitions(status.getDeletedStatusTransitions() + deleted));
+
+            update(status, Phase.DELETING_ROLLUPS, null);
+            purge(status, () -> deletionRepository.deleteRollupChunk(restaurantId, chunkSize),
+                    deleted -> status.setDeletedRollups(status.getDeletedRollups() + deleted));
+
+            // Last data phase: no live order of the restaurant is left to be archived any more
+            update(status, Phase.DELETING_ARCHIVED_ORDERS, null);
+            purge(status, () -> {
+                List<Long> ids = deletionRepository.findArchivedOrderChunk(restaurantId, chunkSize);
+                return ids.isEmpty() ? 0 : deletionRepository.deleteArchivedOrders(ids)[0];
+            }, deleted -> status.setDeletedArchivedOrders(status.getDeletedArchivedOrders() + deleted));
+
+            // Fails on the foreign key if an order slipped in after the chunks above; the next sweep retries
+            update(status, Phase.DELETING_RESTAURANT, null);
+            transactionTemplate.executeWithoutResult(tx -> deletionRepository.deleteRestaurant(restaurantId));
+            if (deletionRepository.exists(restaurantId)) {
+                update(status, Phase.QUEUED, "Restaurant row still present; will retry");
+                return;
+            }
+
+            synchronized (status) {
+                status.setPhase(Phase.COMPLETED);
+                status.setCompletedAt(LocalDateTime.now());
+                status.setLastError(null);
+            }
+            log.info("Deleted restaurant {}: {} orders, {} order items, {} menu items, {} archived orders",
+                    restaurantId, status.getDeletedOrders(), status.getDeletedOrderItems(),
+                    status.getDeletedMenuItems(), status.getDeletedArchivedOrders());
+        } catch (DataAccessException ex) {
+            update(status, Phase.QUEUED, ex.getMessage());
+            log.warn("Deletion of restaurant {} interrupted; the next sweep resumes it: {}", restaurantId, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Repeats a set-based delete, one chunk per transaction, until a chunk comes back empty
+    private void purge(RestaurantDeletionStatusDTO status, IntSupplier chunk, IntConsumer progress)
+            throws InterruptedException {
+        while (true) {
+            Integer deleted = transactionTemplate.execute(tx -> chunk.getAsInt());
+            if (deleted == null || deleted == 0) {
+                return;
+            }
+            synchronized (status) {
+                progress.accept(deleted);
+            }
+            pause();
+        }
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMillis > 0) {
+            Thread.sleep(pauseMillis);
+        }
+    }
+
+    private static void update(RestaurantDeletionStatusDTO status, Phase phase, String error) {
+        synchronized (status) {
+            status.setPhase(phase);
+            status.setLastError(error);
+            if (status.getStartedAt() == null && phase != Phase.QUEUED) {
+                status.setStartedAt(LocalDateTime.now());
+            }
+        }
+    }
+
+    private static RestaurantDeletionStatusDTO newStatus(Long restaurantId, LocalDateTime requestedAt) {
+        RestaurantDeletionStatusDTO status = new RestaurantDeletionStatusDTO();
+        status.setRestaurantId(restaurantId);
+        status.setPhase(Phase.QUEUED);
+        status.setRequestedAt(requestedAt);
+        return status;
+    }
+
+    private static RestaurantDeletionStatusDTO copy(RestaurantDeletionStatusDTO status) {
+        return new RestaurantDeletionStatusDTO(status.getRestaurantId(), status.getPhase(), status.getRequestedAt(),
+                status.getStartedAt(), status.getCompletedAt(), status.getDeletedOrders(),
+                status.getDeletedOrderItems(), status.getDeletedMenuItems(), status.getDeletedStatusTransitions(),
+                status.getDeletedRollups(), status.getDeletedArchivedOrders(), null, null, null, status.getLastError());
+    }
+}
@@ -1,17 +1,31 @@
 package com.foodiego.service;
 
+import com.foodiego.config.CacheConfig;
+import com.foodiego.dto.CursorPage;
 import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.exception.BadRequestException;
 import com.foodiego.exception.ResourceNotFoundException;
 import com.foodiego.model.Restaurant;
 import com.foodiego.model.User;
 import com.foodiego.repository.RestaurantRepository;
 import com.foodiego.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -19,13 +33,35 @@ public class RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<RestaurantDTO> getAllRestaurants() {
-        return restaurantRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    private static final int MAX_PAGE_SIZE = 100;
+
+    public CursorPage<RestaurantDTO> getRestaurants(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<RestaurantDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = restaurantRepository.findSummaryFirstPage(limit);
+        } else {
+            Object[] position = decodeCursor(cursor);
+            rows = restaurantRepository.findSummaryPageAfter((Double) position[0], (Long) position[1], limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<RestaurantDTO> content = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        attachCategories(content);
+
+        String nextCursor = null;
+        if (hasMore) {
+            RestaurantDTO last = content.get(content.size() - 1);
+            nextCursor = encodeCursor(last.getRating(), last.getId());
+        }
+        return new CursorPage<>(content, nextCursor, hasMore);
     }
 
+    @Cacheable(cacheNames = CacheConfig.RESTAURANTS, key = "#id")
     public RestaurantDTO getRestaurantById(Long id) {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
@@ -54,14 +90,20 @@ public class RestaurantService {
         restaurant.setMinOrder(restaurantDTO.getMinOrder());
         restaurant.setIsOpen(restaurantDTO.getIsOpen() != null ? restaurantDTO.getIsOpen() : true);
         restaurant.setAddress(restaurantDTO.getAddress());
+        restaurant.setLatitude(restaurantDTO.getLatitude());
+        restaurant.setLongitude(restaurantDTO.getLongitude());
+        restaurant.setDeliveryRadiusKm(restaurantDTO.getDeliveryRadiusKm());
         restaurant.setCategories(restaurantDTO.getCategories());
         restaurant.setOwner(owner);
 
         restaurant = restaurantRepository.save(restaurant);
-        return convertToDTO(restaurant);
+        RestaurantDTO result = convertToDTO(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(result.getId(), result));
+        return result;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.RESTAURANTS, key = "#id")
     public RestaurantDTO updateRestaurant(Long id, RestaurantDTO restaurantDTO) {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
@@ -76,29 +118,75 @@ public class RestaurantService {
         if (restaurantDTO.getMinOrder() != null) restaurant.setMinOrder(restaurantDTO.getMinOrder());
         if (restaurantDTO.getIsOpen() != null) restaurant.setIsOpen(restaurantDTO.getIsOpen());
         if (restaurantDTO.getAddress() != null) restaurant.setAddress(restaurantDTO.getAddress());
+        if (restaurantDTO.getLatitude() != null) restaurant.setLatitude(restaurantDTO.getLatitude());
+        if (restaurantDTO.getLongitude() != null) restaurant.setLongitude(restaurantDTO.getLongitude());
+        if (restaurantDTO.getDeliveryRadiusKm() != null) restaurant.setDeliveryRadiusKm(restaurantDTO.getDeliveryRadiusKm());
         if (restaurantDTO.getCategories() != null) restaurant.setCategories(restaurantDTO.getCategories());
 
         restaurant = restaurantRepository.save(restaurant);
-        return convertToDTO(restaurant);
+        RestaurantDTO result = convertToDTO(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(result.getId(), result));
+        return result;
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.RESTAURANTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.RESTAURANT_MENUS, key = "#id")
+    })
     public void deleteRestaurant(Long id) {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id: " + id));
 
-        // Clear the owner's reference to the restaurant first
+        // Release the owner so they can open a new restaurant right away
         if (restaurant.getOwner() != null) {
-            User owner = restaurant.getOwner();
-            owner.setRestaurant(null);
-            userRepository.save(owner);
+            restaurant.getOwner().setRestaurant(null);
+            restaurant.setOwner(null);
+        }
+
+        // Soft delete only: the row disappears from every JPA read now, and RestaurantDeletionService
+        // removes it with its orders and menu items in chunks after commit
+        restaurant.setIsOpen(false);
+        restaurant.setDeletedAt(LocalDateTime.now());
+        restaurantRepository.save(restaurant);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(id, null));
+    }
+
+    private void attachCategories(List<RestaurantDTO> restaurants) {
+        if (restaurants.isEmpty()) {
+            return;
+        }
+
+        Map<Long, RestaurantDTO> byId = new LinkedHashMap<>();
+        for (RestaurantDTO dto : restaurants) {
+            dto.setCategories(new ArrayList<>());
+            byId.put(dto.getId(), dto);
+        }
+
+        for (Object[] row : restaurantRepository.findCategoriesByRestaurantIds(byId.keySet())) {
+            byId.get((Long) row[0]).getCategories().add((String) row[1]);
         }
+    }
 
-        // Now delete the restaurant (CASCADE will handle menu items and orders)
-        restaurantRepository.delete(restaurant);
+    private String encodeCursor(Double rating, Long id) {
+        String raw = rating + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            return new Object[] {
+                    Double.valueOf(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1))
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
     }
 
-    private RestaurantDTO convertToDTO(Restaurant restaurant) {
+    RestaurantDTO convertToDTO(Restaurant restaurant) {
         RestaurantDTO dto = new RestaurantDTO();
         dto.setId(restaurant.getId());
         dto.setName(restaurant.getName());
@@ -111,7 +199,10 @@ public class RestaurantService {
         dto.setMinOrder(restaurant.getMinOrder());
         dto.setIsOpen(restaurant.getIsOpen());
         dto.setAddress(restaurant.getAddress());
-        dto.setCategories(restaurant.getCategories());
+        dto.setLatitude(restaurant.getLatitude());
+        dto.setLongitude(restaurant.getLongitude());
+        dto.setDeliveryRadiusKm(restaurant.getDeliveryRadiusKm());
+        dto.setCategories(new ArrayList<>(restaurant.getCategories()));
         dto.setOwnerId(restaurant.getOwner() != null ? restaurant.getOwner().getId() : null);
         dto.setCreatedAt(restaurant.getCreatedAt());
         dto.setUpdatedAt(restaurant.getUpdatedAt());
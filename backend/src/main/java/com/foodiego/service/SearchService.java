@@ -0,0 +1,171 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.MenuItemDTO;
+import com.foodiego.dto.RestaurantDTO;
+import com.foodiego.dto.SearchResponseDTO;
+import com.foodiego.dto.SearchResultDTO;
+import com.foodiego.event.MenuItemChangedEvent;
+import com.foodiego.event.MenuItemsImportedEvent;
+import com.foodiego.event.RestaurantChangedEvent;
+import com.foodiego.model.MenuItem;
+import com.foodiego.model.Restaurant;
+import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.RestaurantRepository;
+import com.foodiego.search.InvertedIndex;
+import com.foodiego.search.TextAnalyzer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SearchService {
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double CATEGORY_WEIGHT = 2.0;
+    private static final double TEXT_WEIGHT = 1.0;
+    private static final int MAX_LIMIT = 50;
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+
+    private final InvertedIndex<Long> restaurantIndex = new InvertedIndex<>();
+    private final InvertedIndex<Long> menuItemIndex = new InvertedIndex<>();
+    private final Map<Long, SearchResultDTO> restaurantDocs = new ConcurrentHashMap<>();
+    private final Map<Long, SearchResultDTO> menuItemDocs = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> menuItemsByRestaurant = new ConcurrentHashMap<>();
+
+    public SearchResponseDTO search(String query, int limit) {
+        int topK = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<String> terms = TextAnalyzer.analyze(query);
+        return new SearchResponseDTO(
+                query,
+                resolve(restaurantIndex.search(terms, topK), restaurantDocs),
+                resolve(menuItemIndex.search(terms, topK), menuItemDocs)
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        restaurantIndex.clear();
+        menuItemIndex.clear();
+        restaurantDocs.clear();
+        menuItemDocs.clear();
+        menuItemsByRestaurant.clear();
+
+        for (Restaurant restaurant : restaurantRepository.findAll()) {
+            indexRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getCuisine(),
+                    restaurant.getAddress(), restaurant.getCategories(), restaurant.getImage());
+        }
+        for (MenuItem menuItem : menuItemRepository.findAllOfActiveRestaurants()) {
+            indexMenuItem(menuItem.getId(), menuItem.getRestaurantId(), menuItem.getName(),
+                    menuItem.getDescription(), menuItem.getCategory(), menuItem.getImage());
+        }
+        log.info("Search index built: {} restaurants, {} menu items", restaurantIndex.size(), menuItemIndex.size());
+    }
+
+    @TransactionalEventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.isDeleted()) {
+            restaurantIndex.remove(event.getRestaurantId());
+            restaurantDocs.remove(event.getRestaurantId());
+            Set<Long> items = menuItemsByRestaurant.remove(event.getRestaurantId());
+            if (items != null) {
+                items.forEach(this::removeMenuItem);
+            }
+            return;
+        }
+
+        RestaurantDTO restaurant = event.getRestaurant();
+        indexRestaurant(restaurant.getId(), restaurant.getName(), restaurant.getCuisine(),
+                restaurant.getAddress(), restaurant.getCategories(), restaurant.getImage());
+    }
+
+    @TransactionalEventListener
+    public void onMenuItemsImported(MenuItemsImportedEvent event) {
+        event.getMenuItems().forEach(menuItem ->
+                onMenuItemChanged(new MenuItemChangedEvent(menuItem.getId(), event.getRestaurantId(), menuItem)));
+    }
+
+    @TransactionalEventListener
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        if (event.isDeleted()) {
+            removeMenuItem(event.getMenuItemId());
+            Set<Long> items = menuItemsByRestaurant.get(event.getRestaurantId());
+            if (items != null) {
+                items.remove(event.getMenuItemId());
+            }
+            return;
+        }
+
+        MenuItemDTO menuItem = event.getMenuItem();
+        indexMenuItem(menuItem.getId(), menuItem.getRestaurantId(), menuItem.getName(),
+                menuItem.getDescription(), menuItem.getCategory(), menuItem.getImage());
+    }
+
+    private void indexRestaurant(Long id, String name, String cuisine, String address,
+                                 List<String> categories, String image) {
+        Map<String, Double> terms = new HashMap<>();
+        addField(terms, name, NAME_WEIGHT);
+        addField(terms, cuisine, CATEGORY_WEIGHT);
+        addField(terms, address, TEXT_WEIGHT);
+        if (categories != null) {
+            categories.forEach(category -> addField(terms, category, CATEGORY_WEIGHT));
+        }
+
+        restaurantDocs.put(id, new SearchResultDTO(id, id, name, cuisine, image, 0.0));
+        restaurantIndex.put(id, terms);
+    }
+
+    private void indexMenuItem(Long id, Long restaurantId, String name, String description,
+                               String category, String image) {
+        Map<String, Double> terms = new HashMap<>();
+        addField(terms, name, NAME_WEIGHT);
+        addField(terms, category, CATEGORY_WEIGHT);
+        addField(terms, description, TEXT_WEIGHT);
+
+        menuItemDocs.put(id, new SearchResultDTO(id, restaurantId, name, category, image, 0.0));
+        menuItemsByRestaurant.computeIfAbsent(restaurantId, key -> ConcurrentHashMap.newKeySet()).add(id);
+        menuItemIndex.put(id, terms);
+    }
+
+    private void removeMenuItem(Long id) {
+        menuItemIndex.remove(id);
+        menuItemDocs.remove(id);
+    }
+
+    private void addField(Map<String, Double> terms, String text, double weight) {
+        for (String token : TextAnalyzer.analyze(text)) {
+            terms.merge(token, weight, Double::sum);
+        }
+    }
+
+    private List<SearchResultDTO> resolve(List<InvertedIndex.ScoredKey<Long>> hits, Map<Long, SearchResultDTO> docs) {
+        if (hits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<SearchResultDTO> results = new ArrayList<>(hits.size());
+        for (InvertedIndex.ScoredKey<Long> hit : hits) {
+            SearchResultDTO doc = docs.get(hit.key());
+            if (doc != null) {
+                results.add(new SearchResultDTO(doc.getId(), doc.getRestaurantId(), doc.getName(),
+                        doc.getSubtitle(), doc.getImage(), hit.score()));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,106 @@
+package com.foodiego.stats;
+
+import java.time.Duration;
+
+/**
+ * Fixed-size streaming quantile sketch over positive values (durations in seconds).
+ *
+ * <p>Values fall into logarithmic buckets, so any quantile is answered within {@code relativeAccuracy}
+ * of the true value. Recent samples dominate through forward exponential decay: a sample observed at
+ * {@code t} is added with weight {@code exp((t - landmark) / tau)}, which keeps {@link #add} O(1). When
+ * the weights grow too large they are rescaled against a new landmark in O(buckets).
+ *
+ * <p>Not thread-safe on its own; callers synchronize on the instance.
+ */
+public class DecayingQuantileSketch {
+
+    private static final double MAX_EXPONENT = 50.0;
+
+    private final double minValue;
+    private final double gamma;
+    private final double logGamma;
+    private final double tauMillis;
+    private final double[] weights;
+
+    private long landmarkMillis;
+    private double totalWeight;
+
+    public DecayingQuantileSketch(double minValue, double maxValue, double relativeAccuracy,
+                                  Duration halfLife, long nowMillis) {
+        if (minValue <= 0 || maxValue <= minValue) {
+            throw new IllegalArgumentException("Expected 0 < minValue < maxValue");
+        }
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1)");
+        }
+        this.minValue = minValue;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.tauMillis = halfLife.toMillis() / Math.log(2);
+        this.weights = new double[(int) Math.ceil(Math.log(maxValue / minValue) / logGamma) + 1];
+        this.landmarkMillis = nowMillis;
+    }
+
+    public void add(double value, long timestampMillis) {
+        double exponent = (timestampMillis - landmarkMillis) / tauMillis;
+        if (exponent > MAX_EXPONENT) {
+            rescale(timestampMillis);
+            exponent = 0;
+        }
+        double weight = Math.exp(exponent);
+        weights[indexOf(value)] += weight;
+        totalWeight += weight;
+    }
+
+    /**
+     * Returns the decayed sample count as seen at {@code nowMillis}; a sample observed one half-life
+     * ago counts as one half.
+     */
+    public double effectiveCount(long nowMillis) {
+        return totalWeight * Math.exp((landmarkMillis - nowMillis) / tauMillis);
+    }
+
+    public double quantile(double q) {
+        if (totalWeight <= 0) {
+            return Double.NaN;
+        }
+        double target = Math.min(Math.max(q, 0.0), 1.0) * totalWeight;
+        double cumulative = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i];
+            if (cumulative >= target && weights[i] > 0) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(weights.length - 1);
+    }
+
+    public int bucketCount() {
+        return weights.length;
+    }
+
+    private int indexOf(double value) {
+        if (!(value > minValue)) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log(value / minValue) / logGamma);
+        return Math.min(index, weights.length - 1);
+    }
+
+    // Bucket i holds (minValue * gamma^(i-1), minValue * gamma^i]; its midpoint is within the accuracy bound
+    private double valueOf(int index) {
+        if (index == 0) {
+            return minValue;
+        }
+        return minValue * Math.pow(gamma, index - 1) * (1 + gamma) / 2;
+    }
+
+    private void rescale(long nowMillis) {
+        double factor = Math.exp((landmarkMillis - nowMillis) / tauMillis);
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] *= factor;
+        }
+        totalWeight *= factor;
+        landmarkMillis = nowMillis;
+    }
+}
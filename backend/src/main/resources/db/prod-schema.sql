@@ -0,0 +1,76 @@
+-- Schema changes on top of the baseline tables for profiles that run Hibernate with ddl-auto=validate.
+-- Spring runs this script before the entity manager factory starts, so validation sees the result.
+-- Every statement must stay idempotent: the script runs on each startup.
+-- Tables that are only touched through JDBC (orders_archive, outbox_events) are created by their
+-- repositories instead, because they are needed in every profile.
+
+-- Menu items moved from IDENTITY to a pooled sequence; SequenceInitializer moves it past MAX(id)
+CREATE SEQUENCE IF NOT EXISTS menu_items_seq START WITH 1 INCREMENT BY 50;
+
+-- Orders and order items moved to pooled sequences so an order and its lines flush as JDBC batches
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+
+-- Idempotency keys; a row without a response is a claim held by a request that is still running
+CREATE TABLE IF NOT EXISTS idempotency_records (
+    id bigserial PRIMARY KEY,
+    idempotency_key varchar(255) NOT NULL UNIQUE,
+    request_hash varchar(64) NOT NULL,
+    response_body text,
+    created_at timestamp(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_records_created_at ON idempotency_records (created_at);
+ALTER TABLE idempotency_records ALTER COLUMN response_body DROP NOT NULL;
+
+-- Optimistic locking on orders; existing rows start at version 0
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+
+-- Keyset pagination over orders: newest first with id as tie-breaker, per optional restaurant/status filter
+CREATE INDEX IF NOT EXISTS idx_orders_created_id ON orders (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_created_id ON orders (restaurant_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_id ON orders (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_status_created_id
+    ON orders (restaurant_id, status, created_at DESC, id DESC);
+
+-- Soft delete: set when a restaurant is deleted, until RestaurantDeletionService removes the row
+ALTER TABLE restaurants ADD COLUMN IF NOT EXISTS deleted_at timestamp(6);
+
+-- Keyset pagination over restaurants: best rated first with id as tie-breaker. The cursor predicate
+-- compares ratings, which skips NULLs, so unrated restaurants are stored as 0
+UPDATE restaurants SET rating = 0 WHERE rating IS NULL;
+ALTER TABLE restaurants ALTER COLUMN rating SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_restaurants_rating_id ON restaurants (rating DESC, id ASC);
+
+-- Hourly and daily order aggregates behind /api/restaurants/{id}/analytics
+CREATE TABLE IF NOT EXISTS order_rollups (
+    id bigserial PRIMARY KEY,
+    restaurant_id bigint NOT NULL,
+    granularity varchar(8) NOT NULL,
+    bucket_start timestamp(6) NOT NULL,
+    created_count bigint NOT NULL,
+    pending_count bigint NOT NULL,
+    confirmed_count bigint NOT NULL,
+    preparing_count bigint NOT NULL,
+    ready_count bigint NOT NULL,
+    completed_count bigint NOT NULL,
+    cancelled_count bigint NOT NULL,
+    gross_total float8 NOT NULL,
+    revenue float8 NOT NULL,
+    CONSTRAINT uk_order_rollups_bucket UNIQUE (restaurant_id, granularity, bucket_start)
+);
+
+-- Order status timeline behind delivery estimates; DeliveryEstimateService purges it past eta.seed-window
+CREATE SEQUENCE IF NOT EXISTS order_status_transitions_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS order_status_transitions (
+    id bigint PRIMARY KEY,
+    order_id bigint NOT NULL,
+    restaurant_id bigint NOT NULL,
+    from_status varchar(16),
+    to_status varchar(16) NOT NULL,
+    order_created_at timestamp(6) NOT NULL,
+    changed_at timestamp(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_order_status_transitions_order ON order_status_transitions (order_id, to_status);
+CREATE INDEX IF NOT EXISTS idx_order_status_transitions_restaurant
+    ON order_status_transitions (restaurant_id, to_status, changed_at);
+CREATE INDEX IF NOT EXISTS idx_order_status_transitions_changed ON order_status_transitions (changed_at);
@@ -0,0 +1,116 @@
+package com.foodiego.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Nearby lookups over 100k synthetic restaurants spread across a metro-sized area, compared with a
+ * full scan. Run with {@code mvn test -Dbenchmarks=true -Dtest=GeoGridIndexBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class GeoGridIndexBenchmarkTest {
+
+    private static final int RESTAURANTS = 100_000;
+    private static final double CENTER_LAT = 40.73;
+    private static final double CENTER_LNG = -73.93;
+    private static final double SPREAD_DEGREES = 0.6;
+    private static final double RADIUS_KM = 5.0;
+    private static final int LIMIT = 20;
+    private static final int WARMUP_QUERIES = 5_000;
+    private static final int MEASURED_QUERIES = 20_000;
+    private static final int SCAN_QUERIES = 200;
+
+    @Test
+    void nearestOver100kRestaurants() {
+        Random random = new Random(42);
+        GeoGridIndex index = new GeoGridIndex(0.05);
+        List<GeoGridIndex.Location> all = new ArrayList<>(RESTAURANTS);
+        for (long id = 1; id <= RESTAURANTS; id++) {
+            GeoGridIndex.Location location = new GeoGridIndex.Location(id,
+                    CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEGREES,
+                    CENTER_LNG + (random.nextDouble() - 0.5) * SPREAD_DEGREES,
+                    random.nextInt(4) == 0 ? null : 2.0 + random.nextInt(9),
+                    random.nextInt(10) != 0);
+            all.add(location);
+            index.put(location);
+        }
+
+        double[][] queries = new double[WARMUP_QUERIES + MEASURED_QUERIES][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new double[] {
+                    CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD_DEGREES,
+                    CENTER_LNG + (random.nextDouble() - 0.5) * SPREAD_DEGREES};
+        }
+
+        for (int i = 0; i < SCAN_QUERIES; i++) {
+            double[] q = queries[i];
+            assertEquals(distances(scan(all, q[0], q[1])), distances(index.nearest(q[0], q[1], RADIUS_KM, LIMIT)),
+                    "query " + i);
+        }
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            sink += index.nearest(queries[i][0], queries[i][1], RADIUS_KM, LIMIT).size();
+        }
+        long[] latencies = new long[MEASURED_QUERIES];
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            double[] q = queries[WARMUP_QUERIES + i];
+            long t0 = System.nanoTime();
+            sink += index.nearest(q[0], q[1], RADIUS_KM, LIMIT).size();
+            latencies[i] = System.nanoTime() - t0;
+        }
+        long indexElapsed = System.nanoTime() - started;
+
+        long[] scanLatencies = new long[SCAN_QUERIES];
+        for (int i = 0; i < SCAN_QUERIES; i++) {
+            double[] q = queries[WARMUP_QUERIES + i];
+            long t0 = System.nanoTime();
+            sink += scan(all, q[0], q[1]).size();
+            scanLatencies[i] = System.nanoTime() - t0;
+        }
+
+        System.out.printf("GeoGridIndex, %d restaurants, radius %.1f km, limit %d (checksum %d)%n",
+                RESTAURANTS, RADIUS_KM, LIMIT, sink);
+        System.out.printf("  grid: %s, %.0f queries/s%n", summary(latencies),
+                MEASURED_QUERIES * 1e9 / indexElapsed);
+        System.out.printf("  full scan: %s%n", summary(scanLatencies));
+    }
+
+    private static List<GeoGridIndex.Hit> scan(List<GeoGridIndex.Location> all, double lat, double lng) {
+        List<GeoGridIndex.Hit> hits = new ArrayList<>();
+        for (GeoGridIndex.Location location : all) {
+            if (!location.open()) {
+                continue;
+            }
+            double distance = GeoGridIndex.distanceKm(lat, lng, location.latitude(), location.longitude());
+            if (distance <= RADIUS_KM
+                    && (location.deliveryRadiusKm() == null || distance <= location.deliveryRadiusKm())) {
+                hits.add(new GeoGridIndex.Hit(location.id(), distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+        return hits.subList(0, Math.min(LIMIT, hits.size()));
+    }
+
+    private static List<Double> distances(List<GeoGridIndex.Hit> hits) {
+        return hits.stream().map(GeoGridIndex.Hit::distanceKm).toList();
+    }
+
+    private static String summary(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return String.format("p50 %.1f us, p99 %.1f us, max %.1f us",
+                sorted[sorted.length / 2] / 1e3,
+                sorted[(int) (sorted.length * 0.99)] / 1e3,
+                sorted[sorted.length - 1] / 1e3);
+    }
+}
@@ -0,0 +1,180 @@
+package com.foodiego.service;
+
+import com.foodiego.model.MenuItem;
+import com.foodiego.model.Restaurant;
+import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.OrderRepository;
+import com.foodiego.repository.RestaurantRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Creates 15-line orders the old way (one menu item lookup per line inside the write transaction)
+ * and the current way (lines resolved in memory from the menu snapshot, order and items flushed as
+ * JDBC batches), and prints latency percentiles, throughput and statements per order. Runs on the
+ * embedded H2 database, so absolute numbers understate a networked PostgreSQL; the statement counts
+ * carry over. Run with {@code mvn test -Dbenchmarks=true -Dtest=OrderBatchInsertBenchmarkTest}.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class OrderBatchInsertBenchmarkTest {
+
+    private static final int MENU_SIZE = 60;
+    private static final int LINES = 15;
+    private static final int WARMUP_ORDERS = 300;
+    private static final int MEASURED_ORDERS = 2_000;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void perLineLookupsVersusPreparedBatch() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Restaurant restaurant = tx.execute(status -> seedRestaurant());
+        List<Long> menuIds = menuItemRepository.findAll().stream().map(MenuItem::getId).toList();
+        Map<Long, PreparedOrder.Line> snapshot = new HashMap<>();
+        for (MenuItem item : menuItemRepository.findAll()) {
+            snapshot.put(item.getId(), line(item, 1));
+        }
+
+        OrderNumberGenerator numbers = new OrderNumberGenerator(0);
+        OrderService orderService = new OrderService(orderRepository, null, restaurantRepository, menuItemRepository,
+                null, null, numbers, event -> { });
+
+        // Before: every line is a findById round trip inside the transaction that writes the order
+        Function<Integer, PreparedOrder> perLine = n -> tx.execute(status -> {
+            Restaurant loaded = restaurantRepository.findById(restaurant.getId()).orElseThrow();
+            List<PreparedOrder.Line> lines = new ArrayList<>(LINES);
+            for (int i = 0; i < LINES; i++) {
+                MenuItem item = menuItemRepository.findById(menuIds.get((n + i) % menuIds.size())).orElseThrow();
+                lines.add(line(item, 1 + i % 3));
+            }
+            PreparedOrder prepared = prepared(numbers, loaded.getId(), loaded.getName(), lines);
+            orderService.persistPreparedOrders(List.of(prepared));
+            return prepared;
+        });
+
+        // After: lines come from the in-memory menu; the transaction only writes
+        Function<Integer, PreparedOrder> batched = n -> {
+            List<PreparedOrder.Line> lines = new ArrayList<>(LINES);
+            for (int i = 0; i < LINES; i++) {
+                PreparedOrder.Line cached = snapshot.get(menuIds.get((n + i) % menuIds.size()));
+                lines.add(new PreparedOrder.Line(cached.menuItemId(), cached.name(), cached.description(),
+                        cached.price(), cached.image(), cached.category(), 1 + i % 3));
+            }
+            PreparedOrder prepared = prepared(numbers, restaurant.getId(), restaurant.getName(), lines);
+            tx.executeWithoutResult(status -> orderService.persistPreparedOrders(List.of(prepared)));
+            return prepared;
+        };
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        long before = orderRepository.count();
+
+        Result perLineResult = run("per-line lookups", perLine, statistics);
+        Result batchedResult = run("prepared + batched", batched, statistics);
+
+        assertEquals(before + 2L * (WARMUP_ORDERS + MEASURED_ORDERS), orderRepository.count());
+        System.out.printf("Order creation, %d lines per order, %d measured orders per variant%n",
+                LINES, MEASURED_ORDERS);
+        perLineResult.print();
+        batchedResult.print();
+    }
+
+    private Result run(String name, Function<Integer, PreparedOrder> createOrder, Statistics statistics) {
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            createOrder.apply(i);
+        }
+        statistics.clear();
+        long[] latencies = new long[MEASURED_ORDERS];
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            long t0 = System.nanoTime();
+            createOrder.apply(i);
+            latencies[i] = System.nanoTime() - t0;
+        }
+        long elapsed = System.nanoTime() - started;
+        return new Result(name, latencies, elapsed, statistics.getPrepareStatementCount());
+    }
+
+    private Restaurant seedRestaurant() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Benchmark Kitchen");
+        restaurant.setCuisine("Test");
+        restaurant.setDeliveryFee(2.5);
+        restaurant.setMinOrder(0.0);
+        restaurant.setAddress("1 Bench St");
+        restaurant = restaurantRepository.save(restaurant);
+
+        List<MenuItem> items = new ArrayList<>(MENU_SIZE);
+        for (int i = 0; i < MENU_SIZE; i++) {
+            MenuItem item = new MenuItem();
+            item.setRestaurant(restaurant);
+            item.setName("Dish " + i);
+            item.setDescription("Description of dish " + i);
+            item.setPrice(5.0 + i % 20);
+            item.setCategory("Category " + i % 6);
+            items.add(item);
+        }
+        menuItemRepository.saveAll(items);
+        return restaurant;
+    }
+
+    private static PreparedOrder.Line line(MenuItem item, int quantity) {
+        return new PreparedOrder.Line(item.getId(), item.getName(), item.getDescription(), item.getPrice(),
+                item.getImage(), item.getCategory(), quantity);
+    }
+
+    private static PreparedOrder prepared(OrderNumberGenerator numbers, Long restaurantId, String restaurantName,
+                                          List<PreparedOrder.Line> lines) {
+        double total = lines.stream().mapToDouble(line -> line.price() * line.quantity()).sum();
+        return new PreparedOrder(numbers.nextOrderNumber(), restaurantId, restaurantName, "Bench Customer",
+                "555-0100", "2 Bench St", null, total, lines);
+    }
+
+    private record Result(String name, long[] latencies, long elapsedNanos, long statements) {
+
+        void print() {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("  %-20s p50 %.2f ms, p99 %.2f ms, %.0f orders/s, %.1f statements/order%n", name,
+                    sorted[sorted.length / 2] / 1e6,
+                    sorted[(int) (sorted.length * 0.99)] / 1e6,
+                    latencies.length * 1e9 / elapsedNanos,
+                    (double) statements / latencies.length);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.foodiego.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers one generator from several threads, more ids than a millisecond's sequence holds, and
+ * checks that every id is unique, that each thread sees them increase and that the rendered order
+ * numbers sort like the ids. Prints the throughput it reached.
+ */
+class OrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250_000;
+
+    @Test
+    void idsStayUniqueAndOrderedAcrossThreads() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    start.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+
+            long started = System.nanoTime();
+            start.countDown();
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            int offset = 0;
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 1; i < ids.length; i++) {
+                    assertTrue(ids[i] > ids[i - 1], "ids must increase within a thread");
+                }
+                System.arraycopy(ids, 0, all, offset, ids.length);
+                offset += ids.length;
+            }
+            long elapsed = System.nanoTime() - started;
+
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                assertTrue(all[i] != all[i - 1], "duplicate id " + all[i]);
+            }
+            for (long id : new long[] {all[0], all[all.length - 1]}) {
+                assertEquals(7, (id >>> 12) & 1023, "node id bits");
+            }
+            System.out.printf("OrderNumberGenerator, %d threads: %d unique ids, %.1f million ids/s%n",
+                    THREADS, all.length, all.length * 1e3 / elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void orderNumbersSortLikeTheirIds() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(1);
+        String previous = generator.nextOrderNumber();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.nextOrderNumber();
+            assertEquals(previous.length(), next.length());
+            assertTrue(next.compareTo(previous) > 0, next + " must sort after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void rejectsNodeIdsOutsideTenBits() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(1024));
+    }
+}
@@ -0,0 +1,310 @@
+package com.foodiego.service;
+
+import com.foodiego.dto.BulkOrderStatusRequest;
+import com.foodiego.dto.BulkOrderStatusResultDTO;
+import com.foodiego.dto.CreateOrderRequest;
+import com.foodiego.dto.CursorPage;
+import com.foodiego.dto.OrderDTO;
+import com.foodiego.dto.OrderFilter;
+import com.foodiego.model.MenuItem;
+import com.foodiego.model.Order.OrderStatus;
+import com.foodiego.model.Restaurant;
+import com.foodiego.repository.MenuItemRepository;
+import com.foodiego.repository.OrderArchiveRepository;
+import com.foodiego.repository.OrderRepository;
+import com.foodiego.repository.RestaurantRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the number of SQL statements behind each order read and write path, so a lazy load that
+ * slips past the fetch plans shows up as a failing count instead of an N+1 in production. Counts
+ * are taken with Hibernate statistics plus a counter on the archive's JDBC template, on the embedded
+ * H2 database over orders with several items, and must not depend on how many orders or items are
+ * involved. The archive tables are created here without the monthly partitions H2 cannot express.
+ */
+@DataJpaTest(showSql = false)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderQueryCountTest {
+
+    private static final int ORDERS = 30;
+    private static final int ITEMS_PER_ORDER = 4;
+    private static final int ARCHIVED = 10;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final OrderNumberGenerator numbers = new OrderNumberGenerator(0);
+
+    private TransactionTemplate tx;
+    private Statistics statistics;
+    private CountingJdbcTemplate archiveJdbc;
+    private OrderService orderService;
+    private Restaurant restaurant;
+    private List<MenuItem> menu;
+    private List<OrderDTO> orders;
+    private List<OrderDTO> archived;
+
+    @BeforeEach
+    void seed() {
+        tx = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        archiveJdbc = new CountingJdbcTemplate(dataSource);
+        createArchiveTables();
+        OrderArchiveRepository archiveRepository = new OrderArchiveRepository(archiveJdbc);
+        // Services are called directly, so their caches stay cold and every read reaches the database
+        RestaurantService restaurantService = new RestaurantService(restaurantRepository, null, event -> { });
+        MenuItemService menuItemService = new MenuItemService(menuItemRepository, restaurantRepository,
+                new ConcurrentMapCacheManager(), event -> { });
+        orderService = new OrderService(orderRepository, archiveRepository, restaurantRepository, menuItemRepository,
+                restaurantService, menuItemService, numbers, event -> { });
+
+        restaurant = tx.execute(status -> {
+            Restaurant created = new Restaurant();
+            created.setName("Count Kitchen");
+            created.setCuisine("Test");
+            created.setDeliveryFee(2.0);
+            created.setMinOrder(0.0);
+            created.setAddress("1 Count St");
+            return restaurantRepository.save(created);
+        });
+        menu = tx.execute(status -> {
+            List<MenuItem> items = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                MenuItem item = new MenuItem();
+                item.setRestaurant(restaurant);
+                item.setName("Dish " + i);
+                item.setDescription("Description of dish " + i);
+                item.setPrice(5.0 + i);
+                item.setCategory("Category " + i % 4);
+                items.add(item);
+            }
+            return menuItemRepository.saveAll(items);
+        });
+
+        orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            PreparedOrder prepared = prepared(i, ITEMS_PER_ORDER);
+            orders.addAll(tx.execute(status -> orderService.persistPreparedOrders(List.of(prepared))));
+        }
+        archived = new ArrayList<>();
+        for (int i = 0; i < ARCHIVED; i++) {
+            PreparedOrder prepared = prepared(ORDERS + i, ITEMS_PER_ORDER);
+            archived.addAll(tx.execute(status -> orderService.persistPreparedOrders(List.of(prepared))));
+        }
+        tx.executeWithoutResult(status ->
+                archiveRepository.moveToArchive(archived.stream().map(OrderDTO::getId).toList()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        tx.executeWithoutResult(status -> {
+            archiveJdbc.getJdbcTemplate().execute("DELETE FROM order_items_archive");
+            archiveJdbc.getJdbcTemplate().execute("DELETE FROM orders_archive");
+            orderRepository.deleteAll();
+            menuItemRepository.deleteAll();
+            restaurantRepository.deleteAll();
+        });
+    }
+
+    @Test
+    void listingPagesLoadIdsThenOrdersWithItems() {
+        CursorPage<OrderDTO> first = count(2, () -> orderService.getOrders(
+                new OrderFilter(restaurant.getId(), null, null, null), null, 20, false));
+        assertEquals(20, first.getContent().size());
+
+        CursorPage<OrderDTO> second = count(2, () -> orderService.getOrders(
+                new OrderFilter(restaurant.getId(), null, null, null), first.getNextCursor(), 20, false));
+        assertEquals(ORDERS - 20, second.getContent().size());
+        assertEquals(ITEMS_PER_ORDER, second.getContent().get(0).getItems().size());
+
+        count(2, () -> orderService.getOrders(
+                new OrderFilter(restaurant.getId(), OrderStatus.PENDING, null, null), null, 50, false));
+    }
+
+    @Test
+    void listingWithHistoryAddsOneArchiveQueryPerTable() {
+        CursorPage<OrderDTO> page = count(4, () -> orderService.getOrders(
+                new OrderFilter(restaurant.getId(), null, null, null), null, 100, true));
+        assertEquals(ORDERS + ARCHIVED, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(order -> order.getItems().size() == ITEMS_PER_ORDER));
+    }
+
+    @Test
+    void archivedOrderReadMissesTheHotTableThenReadsTheArchive() {
+        OrderDTO order = archived.get(0);
+        assertEquals(ITEMS_PER_ORDER, count(3, () -> orderService.getOrderById(order.getId(), true))
+                .getItems().size());
+        count(3, () -> orderService.getOrderByOrderNumber(order.getOrderNumber(), true));
+    }
+
+    @Test
+    void singleOrderReadsAreOneStatement() {
+        OrderDTO order = orders.get(0);
+        assertEquals(ITEMS_PER_ORDER, count(1, () -> orderService.getOrderById(order.getId(), false))
+                .getItems().size());
+        count(1, () -> orderService.getOrderByOrderNumber(order.getOrderNumber(), false));
+        count(1, () -> orderService.getOrderHeader(order.getId()));
+        count(1, () -> orderService.getOrderHeaderByNumber(order.getOrderNumber()));
+    }
+
+    @Test
+    void boardRebuildIsOneStatement() {
+        assertEquals(ORDERS, count(1, () -> orderService.getOrdersWithStatusIn(ActiveOrderBoardService.ACTIVE_STATUSES))
+                .size());
+    }
+
+    @Test
+    void statusChangeReadsUpdatesAndReloadsOnce() {
+        OrderDTO order = orders.get(0);
+        OrderDTO updated = count(3, () -> orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED, null));
+        assertEquals(OrderStatus.CONFIRMED, updated.getStatus());
+        assertEquals(ITEMS_PER_ORDER, updated.getItems().size());
+    }
+
+    @Test
+    void bulkStatusChangeLocksUpdatesAndReloadsOnce() {
+        List<BulkOrderStatusRequest.OrderRef> refs = new ArrayList<>();
+        for (OrderDTO order : orders.subList(0, 10)) {
+            refs.add(new BulkOrderStatusRequest.OrderRef(order.getId(), order.getVersion()));
+        }
+        refs.add(new BulkOrderStatusRequest.OrderRef(orders.get(10).getId(), orders.get(10).getVersion() + 1));
+
+        BulkOrderStatusResultDTO result = count(3, () -> orderService.updateOrderStatuses(OrderStatus.CONFIRMED, refs));
+        assertEquals(10, result.getUpdated().size());
+        assertEquals(1, result.getConflicts().size());
+        assertTrue(result.getUpdated().stream().allMatch(order -> order.getItems().size() == ITEMS_PER_ORDER));
+    }
+
+    @Test
+    void preparationReadsRestaurantAndMenuOnce() {
+        // Restaurant row, its categories and the menu with allergens, whatever the number of lines
+        PreparedOrder prepared = count(3, () -> orderService.prepareOrder(request(15)));
+        assertEquals(15, prepared.lines().size());
+    }
+
+    @Test
+    void creationFromRequestIsPreparationPlusBatchedInserts() {
+        // Preparation's three reads plus the inserts pinned by creationIsOneBatchedInsertPerTable
+        long statements = measure(() -> orderService.createOrder(request(15)));
+        assertTrue(statements >= 5 && statements <= 7, "prepared statements: " + statements);
+    }
+
+    @Test
+    void creationIsOneBatchedInsertPerTable() {
+        // Order row plus one batch for all 15 lines; each pooled sequence may add one call when it
+        // moves to its next block of ids, which depends on how many rows earlier tests created
+        long statements = measure(() -> orderService.persistPreparedOrders(List.of(prepared(1, 15))));
+        assertTrue(statements >= 2 && statements <= 4, "prepared statements: " + statements);
+    }
+
+    private <T> T count(long expected, Supplier<T> call) {
+        statistics.clear();
+        archiveJdbc.statements.set(0);
+        T result = tx.execute(status -> call.get());
+        assertEquals(expected, statistics.getPrepareStatementCount() + archiveJdbc.statements.get(),
+                "prepared statements");
+        return result;
+    }
+
+    private long measure(Supplier<?> call) {
+        statistics.clear();
+        tx.execute(status -> call.get());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createArchiveTables() {
+        archiveJdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS orders_archive (" +
+                "id bigint NOT NULL, order_number varchar(255) NOT NULL, restaurant_id bigint NOT NULL, " +
+                "total float8 NOT NULL, status varchar(255) NOT NULL, customer_name varchar(255) NOT NULL, " +
+                "customer_phone varchar(255) NOT NULL, customer_address varchar(255) NOT NULL, " +
+                "notes varchar(1000), version bigint NOT NULL DEFAULT 0, created_at timestamp(6) NOT NULL, " +
+                "updated_at timestamp(6), archived_at timestamp(6) NOT NULL DEFAULT now(), " +
+                "PRIMARY KEY (id, created_at))");
+        archiveJdbc.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS order_items_archive (" +
+                "id bigint NOT NULL, order_id bigint NOT NULL, order_created_at timestamp(6) NOT NULL, " +
+                "menu_item_id bigint, menu_item_name varchar(255), menu_item_description varchar(1000), " +
+                "price float8 NOT NULL, quantity integer NOT NULL, image varchar(255), category varchar(255), " +
+                "PRIMARY KEY (id, order_created_at))");
+    }
+
+    private CreateOrderRequest request(int lines) {
+        List<CreateOrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (MenuItem item : menu.subList(0, lines)) {
+            items.add(new CreateOrderRequest.OrderItemRequest(item.getId(), 2));
+        }
+        return new CreateOrderRequest(restaurant.getId(), "Count Customer", "555-0100", "2 Count St", null, items);
+    }
+
+    private PreparedOrder prepared(int seed, int lines) {
+        List<PreparedOrder.Line> orderLines = new ArrayList<>(lines);
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            MenuItem item = menu.get((seed + i) % menu.size());
+            orderLines.add(new PreparedOrder.Line(item.getId(), item.getName(), item.getDescription(),
+                    item.getPrice(), item.getImage(), item.getCategory(), 1));
+            total += item.getPrice();
+        }
+        return new PreparedOrder(numbers.nextOrderNumber(), restaurant.getId(),
+                restaurant.getName(), "Count Customer", "555-0100", "2 Count St", null, total, orderLines);
+    }
+
+    // Counts every statement the archive repository prepares, queries and updates alike
+    private static final class CountingJdbcTemplate extends NamedParameterJdbcTemplate {
+        private final AtomicLong statements = new AtomicLong();
+
+        private CountingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        protected PreparedStatementCreator getPreparedStatementCreator(
+                String sql, SqlParameterSource paramSource, Consumer<PreparedStatementCreatorFactory> customizer) {
+            statements.incrementAndGet();
+            return super.getPreparedStatementCreator(sql, paramSource, customizer);
+        }
+    }
+}
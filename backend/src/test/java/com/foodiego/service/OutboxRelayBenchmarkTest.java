@@ -0,0 +1,161 @@
+package com.foodiego.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodiego.config.CacheConfig;
+import com.foodiego.dto.OutboxStatsDTO;
+import com.foodiego.event.OutboxMessage;
+import com.foodiego.repository.OutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pushes outbox rows through the relay, the partitioned event bus and the cache invalidation
+ * consumer, with the outbox table replaced by an in-memory map so the numbers show what the relay
+ * and bus sustain without database round trips. Reports end-to-end events per second (relayed and
+ * marked delivered) and the relay's own peak rate. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=OutboxRelayBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class OutboxRelayBenchmarkTest {
+
+    private static final int AGGREGATES = 5_000;
+    private static final int WARMUP_EVENTS = 100_000;
+    private static final int MEASURED_EVENTS = 500_000;
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    @Test
+    void relayToBusToConsumer() {
+        InMemoryOutbox outbox = new InMemoryOutbox();
+        EventBus eventBus = new EventBus(8, 10_000, 100, 1_000, 4);
+        ObjectMapper objectMapper = new ObjectMapper();
+        CacheInvalidationConsumer consumer = new CacheInvalidationConsumer(eventBus,
+                new ConcurrentMapCacheManager(CacheConfig.RESTAURANTS, CacheConfig.RESTAURANT_MENUS), objectMapper);
+        consumer.subscribe();
+        OutboxService outboxService = new OutboxService(outbox, eventBus, objectMapper, new NoOpTransactionManager(),
+                true, BATCH_SIZE, MAX_BATCHES_PER_RUN, Duration.ofDays(1), 0);
+
+        try {
+            drain(outboxService, outbox, WARMUP_EVENTS);
+            long before = outbox.delivered.get();
+            long started = System.nanoTime();
+            int runs = drain(outboxService, outbox, MEASURED_EVENTS);
+            long elapsed = System.nanoTime() - started;
+
+            assertEquals(MEASURED_EVENTS, outbox.delivered.get() - before);
+            OutboxStatsDTO stats = outboxService.getStats();
+            System.out.printf("Outbox relay, %d events over %d aggregates, batch %d x %d per run%n",
+                    MEASURED_EVENTS, AGGREGATES, BATCH_SIZE, MAX_BATCHES_PER_RUN);
+            System.out.printf("  end to end: %.0f events/s over %d relay runs (%.1f ms)%n",
+                    MEASURED_EVENTS * 1e9 / elapsed, runs, elapsed / 1e6);
+            System.out.printf("  relay peak: %.0f events/s%n", stats.getPeakEventsPerSecond());
+        } finally {
+            eventBus.shutdown();
+        }
+    }
+
+    // Relays back to back, without the scheduler's pause, until every appended event is delivered
+    private static int drain(OutboxService outboxService, InMemoryOutbox outbox, int events) {
+        long target = outbox.delivered.get() + events;
+        outbox.append(events);
+        int runs = 0;
+        while (outbox.delivered.get() < target) {
+            outboxService.relay();
+            runs++;
+            if (outbox.unrelayed.isEmpty()) {
+                Thread.onSpinWait();
+            }
+        }
+        return runs;
+    }
+
+    private static final class InMemoryOutbox extends OutboxRepository {
+        private final NavigableMap<Long, OutboxMessage> unrelayed = new ConcurrentSkipListMap<>();
+        private final AtomicLong delivered = new AtomicLong();
+        private long nextId = 1;
+
+        private InMemoryOutbox() {
+            super(null);
+        }
+
+        void append(int events) {
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < events; i++) {
+                long id = nextId++;
+                long aggregate = id % AGGREGATES;
+                OutboxMessage message = id % 4 == 0
+                        ? new OutboxMessage(id, "restaurant", String.valueOf(aggregate % 100), "restaurant.updated",
+                                "{\"id\":" + aggregate % 100 + "}", now)
+                        : new OutboxMessage(id, "menu_item", String.valueOf(aggregate), "menu_item.updated",
+                                "{\"id\":" + aggregate + ",\"restaurantId\":" + aggregate % 100 + "}", now);
+                unrelayed.put(id, message);
+            }
+        }
+
+        @Override
+        public boolean tryRelayLock() {
+            return true;
+        }
+
+        @Override
+        public List<OutboxMessage> findUnrelayed(int limit) {
+            List<OutboxMessage> batch = new ArrayList<>(limit);
+            for (OutboxMessage message : unrelayed.values()) {
+                if (batch.size() == limit) {
+                    break;
+                }
+                batch.add(message);
+            }
+            return batch;
+        }
+
+        @Override
+        public int markRelayed(Collection<Long> ids, int nodeId) {
+            ids.forEach(unrelayed::remove);
+            return ids.size();
+        }
+
+        @Override
+        public int markDelivered(Collection<Long> ids) {
+            delivered.addAndGet(ids.size());
+            return ids.size();
+        }
+
+        @Override
+        public long countUnrelayed() {
+            return unrelayed.size();
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -66,7 +66,11 @@ export default function RestaurantCard({ restaurant, index }: RestaurantCardProp
             <div className="flex items-center gap-4 text-sm text-muted-foreground">
               <div className="flex items-center gap-1">
                 <Clock className="h-4 w-4" />
-                <span>{restaurant.deliveryTime}</span>
+                <span>
+                  {restaurant.deliveryEstimate
+                    ? `${restaurant.deliveryEstimate.minMinutes}-${restaurant.deliveryEstimate.maxMinutes} min`
+                    : restaurant.deliveryTime}
+                </span>
               </div>
               <div className="flex items-center gap-1">
                 <Truck className="h-4 w-4" />
@@ -1,6 +1,6 @@
 import { useState } from 'react';
 import { Link } from 'react-router-dom';
-import { useMutation } from '@tanstack/react-query';
+import { useMutation, useQuery, keepPreviousData } from '@tanstack/react-query';
 import { motion } from 'framer-motion';
 import { ArrowLeft, MapPin, Phone, User, FileText, CheckCircle } from 'lucide-react';
 import Header from '@/components/layout/Header';
@@ -10,6 +10,7 @@ import { Textarea } from '@/components/ui/textarea';
 import { Label } from '@/components/ui/label';
 import { useCart } from '@/context/CartContext';
 import { orderService } from '@/services/orderService';
+import { cartService, formatCents } from '@/services/cartService';
 import { toast } from 'sonner';
 
 export default function CheckoutPage() {
@@ -23,6 +24,15 @@ export default function CheckoutPage() {
   });
 
   const [orderComplete, setOrderComplete] = useState(false);
+
+  const quoteItems = state.items.map(item => ({ menuItemId: Number(item.id), quantity: item.quantity }));
+  const { data: quote } = useQuery({
+    queryKey: ['cartQuote', state.restaurantId, quoteItems],
+    queryFn: () => cartService.quote({ restaurantId: Number(state.restaurantId), items: quoteItems }),
+    enabled: !!state.restaurantId && quoteItems.length > 0,
+    placeholderData: keepPreviousData,
+  });
+  const displayTotal = quote ? formatCents(quote.totalCents) : totalPrice;
   const [orderNumber, setOrderNumber] = useState<string | null>(null);
 
   // Create order mutation
@@ -224,9 +234,9 @@ export default function CheckoutPage() {
                 variant="hero"
                 size="lg"
                 className="w-full"
-                disabled={createOrderMutation.isPending}
+                disabled={createOrderMutation.isPending || (quote !== undefined && !quote.orderable)}
               >
-                {createOrderMutation.isPending ? 'Se procesează...' : `Plasează comanda • ${totalPrice} lei`}
+                {createOrderMutation.isPending ? 'Se procesează...' : `Plasează comanda • ${displayTotal} lei`}
               </Button>
             </form>
           </motion.div>
@@ -269,15 +279,35 @@ export default function CheckoutPage() {
               <div className="border-t border-border pt-4 space-y-2">
                 <div className="flex justify-between text-sm">
                   <span className="text-muted-foreground">Subtotal</span>
-                  <span className="text-foreground">{totalPrice} lei</span>
+                  <span className="text-foreground">
+                    {quote ? formatCents(quote.subtotalCents) : totalPrice} lei
+                  </span>
                 </div>
                 <div className="flex justify-between text-sm">
                   <span className="text-muted-foreground">Livrare</span>
-                  <span className="text-success">Gratuită</span>
+                  {quote && quote.deliveryFeeCents > 0 ? (
+                    <span className="text-foreground">{formatCents(quote.deliveryFeeCents)} lei</span>
+                  ) : (
+                    <span className="text-success">Gratuită</span>
+                  )}
                 </div>
+                {quote && quote.minOrderShortfallCents > 0 && (
+                  <p className="text-sm text-destructive">
+                    Mai adaugă {formatCents(quote.minOrderShortfallCents)} lei pentru comanda minimă de{' '}
+                    {formatCents(quote.minOrderCents)} lei
+                  </p>
+                )}
+                {quote && quote.unavailableItems.length > 0 && (
+                  <p className="text-sm text-destructive">
+                    Produse indisponibile: {quote.unavailableItems.map(i => i.name ?? `#${i.menuItemId}`).join(', ')}
+                  </p>
+                )}
+                {quote && !quote.restaurantOpen && (
+                  <p className="text-sm text-destructive">Restaurantul este închis momentan</p>
+                )}
                 <div className="flex justify-between text-lg font-bold pt-2 border-t border-border">
                   <span className="text-foreground">Total</span>
-                  <span className="text-primary">{totalPrice} lei</span>
+                  <span className="text-primary">{displayTotal} lei</span>
                 </div>
               </div>
             </div>
@@ -1,7 +1,7 @@
-import { useState } from 'react';
+import { useEffect, useState } from 'react';
 import { motion } from 'framer-motion';
 import { Link, useNavigate } from 'react-router-dom';
-import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
+import { QueryClient, useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
 import {
   ArrowLeft,
   Clock,
@@ -25,6 +25,8 @@ import { Card, CardContent, CardDescription, CardHeader, CardTitle } from '@/com
 import { useAuth } from '@/context/AuthContext';
 import { restaurantService } from '@/services/restaurantService';
 import { orderService } from '@/services/orderService';
+import { analyticsService } from '@/services/analyticsService';
+import { CursorPage } from '@/services/restaurantService';
 import { uploadService } from '@/services/uploadService';
 import { toast } from 'sonner';
 import { Order } from '@/types';
@@ -64,6 +66,33 @@ const statusConfig: Record<string, { label: string; color: string; icon: React.R
 
 const statusFlow: Order['status'][] = ['PENDING', 'CONFIRMED', 'PREPARING', 'READY', 'COMPLETED'];
 
+// Closed orders shown next to the live board
+const RECENT_PAGE_SIZE = 50;
+
+const ANALYTICS_REFRESH_MS = 30_000;
+
+const isActive = (order: Order) => order.status !== 'COMPLETED' && order.status !== 'CANCELLED';
+
+// Replaces the order in a newest-first list, or puts a new one at the top
+function upsertOrder(orders: Order[] | undefined, order: Order): Order[] | undefined {
+  if (!orders) return orders;
+  const index = orders.findIndex((o) => o.id === order.id);
+  if (index === -1) return [order, ...orders];
+  const next = [...orders];
+  next[index] = order;
+  return next;
+}
+
+// Moves an order between the cached board and history as its status changes
+function applyOrder(queryClient: QueryClient, order: Order) {
+  queryClient.setQueryData<Order[]>(['orders', order.restaurantId, 'active'], (current) =>
+    isActive(order) ? upsertOrder(current, order) : current?.filter((o) => o.id !== order.id)
+  );
+  queryClient.setQueryData<CursorPage<Order>>(['orders', order.restaurantId, 'recent'], (current) =>
+    current && { ...current, content: upsertOrder(current.content, order)! }
+  );
+}
+
 export default function DashboardPage() {
   const navigate = useNavigate();
   const { user, isAuthenticated } = useAuth();
@@ -78,22 +107,61 @@ export default function DashboardPage() {
     retry: false,
   });
 
-  // Fetch orders
-  const { data: orders = [], isLoading: ordersLoading } = useQuery({
-    queryKey: ['orders', restaurant?.id],
-    queryFn: () => orderService.getOrdersByRestaurant(restaurant!.id),
+  // Orders still in the kitchen come from the server's in-memory board; closed ones from the
+  // newest page of history. Neither walks the restaurant's full order history.
+  const { data: activeOrders = [], isLoading: ordersLoading } = useQuery({
+    queryKey: ['orders', restaurant?.id, 'active'],
+    queryFn: () => orderService.getActiveOrdersByRestaurant(restaurant!.id),
     enabled: !!restaurant?.id,
   });
 
+  const { data: recentPage } = useQuery({
+    queryKey: ['orders', restaurant?.id, 'recent'],
+    queryFn: () => orderService.getOrdersByRestaurantPage(restaurant!.id, null, RECENT_PAGE_SIZE),
+    enabled: !!restaurant?.id,
+  });
+
+  // Totals come from the server's rollups rather than from the orders loaded here
+  const { data: analytics } = useQuery({
+    queryKey: ['analytics', restaurant?.id],
+    queryFn: () => analyticsService.getRevenue(restaurant!.id),
+    enabled: !!restaurant?.id,
+    refetchInterval: ANALYTICS_REFRESH_MS,
+  });
+
+  const orders = [...activeOrders, ...(recentPage?.content ?? []).filter((o) => !isActive(o))];
+
+  // Apply pushed changes to the cached lists instead of refetching on each event
+  useEffect(() => {
+    if (!restaurant?.id) return;
+    const restaurantId = restaurant.id;
+    return orderService.subscribeToRestaurantOrders(restaurantId, {
+      onOrder: (order) => applyOrder(queryClient, order),
+      onOrderDeleted: (orderId) => {
+        queryClient.setQueryData<Order[]>(['orders', restaurantId, 'active'], (current) =>
+          current?.filter((o) => o.id !== orderId)
+        );
+        queryClient.setQueryData<CursorPage<Order>>(['orders', restaurantId, 'recent'], (current) =>
+          current && { ...current, content: current.content.filter((o) => o.id !== orderId) }
+        );
+      },
+      onResync: () => queryClient.invalidateQueries({ queryKey: ['orders', restaurantId] }),
+    });
+  }, [restaurant?.id, queryClient]);
+
   // Update order status mutation
   const updateStatusMutation = useMutation({
-    mutationFn: ({ orderId, status }: { orderId: number; status: string }) =>
-      orderService.updateOrderStatus(orderId, status),
-    onSuccess: () => {
-      queryClient.invalidateQueries({ queryKey: ['orders'] });
+    mutationFn: ({ orderId, status, version }: { orderId: number; status: string; version?: number }) =>
+      orderService.updateOrderStatus(orderId, status, version),
+    onSuccess: (order) => {
+      applyOrder(queryClient, order);
       toast.success('Status comandă actualizat!');
     },
-    onError: (error: any) => {
+    onError: async (error: any, { orderId }) => {
+      if (error.response?.status === 409) {
+        // Someone else changed it first: reload just that order
+        applyOrder(queryClient, await orderService.getOrderById(orderId));
+      }
       toast.error(error.response?.data?.message || 'Eroare la actualizarea statusului');
     },
   });
@@ -147,8 +215,8 @@ export default function DashboardPage() {
     return statusFlow[currentIndex + 1];
   };
 
-  const handleStatusUpdate = (orderId: number, newStatus: Order['status']) => {
-    updateStatusMutation.mutate({ orderId, status: newStatus });
+  const handleStatusUpdate = (order: Order, newStatus: Order['status']) => {
+    updateStatusMutation.mutate({ orderId: order.id, status: newStatus, version: order.version });
   };
 
   const handleEditRestaurant = () => {
@@ -168,13 +236,10 @@ export default function DashboardPage() {
   };
 
   const stats = {
-    total: orders.length,
-    pending: orders.filter((o) => o.status === 'PENDING').length,
-    preparing: orders.filter((o) => o.status === 'PREPARING').length,
-    completed: orders.filter((o) => o.status === 'COMPLETED').length,
-    revenue: orders
-      .filter((o) => o.status !== 'CANCELLED')
-      .reduce((sum, o) => sum + o.total, 0),
+    total: analytics?.totals.orderCount ?? 0,
+    pending: activeOrders.filter((o) => o.status === 'PENDING').length,
+    preparing: activeOrders.filter((o) => o.status === 'PREPARING').length,
+    revenue: analytics?.totals.revenue ?? 0,
   };
 
   // Loading state or deleting
@@ -427,7 +492,7 @@ export default function DashboardPage() {
                   <div className="flex gap-2">
                     {nextStatus && (
                       <Button
-                        onClick={() => handleStatusUpdate(order.id, nextStatus)}
+                        onClick={() => handleStatusUpdate(order, nextStatus)}
                         disabled={updateStatusMutation.isPending}
                         size="sm"
                       >
@@ -445,7 +510,7 @@ export default function DashboardPage() {
                       <Button
                         variant="destructive"
                         size="sm"
-                        onClick={() => handleStatusUpdate(order.id, 'CANCELLED')}
+                        onClick={() => handleStatusUpdate(order, 'CANCELLED')}
                         disabled={updateStatusMutation.isPending}
                       >
                         Anulează
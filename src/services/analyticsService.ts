@@ -0,0 +1,27 @@
+import api from '@/config/api';
+import { Order } from '@/types';
+
+export interface RevenueBucket {
+  bucketStart: string | null;
+  orderCount: number;
+  statusCounts: Partial<Record<Order['status'], number>>;
+  grossTotal: number;
+  revenue: number;
+  averageBasket: number;
+}
+
+export interface RevenueAnalytics {
+  restaurantId: number;
+  granularity: 'HOUR' | 'DAY';
+  from: string;
+  to: string;
+  totals: RevenueBucket;
+  buckets: RevenueBucket[];
+}
+
+export const analyticsService = {
+  async getRevenue(restaurantId: number, granularity: 'HOUR' | 'DAY' = 'DAY'): Promise<RevenueAnalytics> {
+    const response = await api.get(`/restaurants/${restaurantId}/analytics/revenue`, { params: { granularity } });
+    return response.data;
+  },
+};
@@ -0,0 +1,43 @@
+import api from '@/config/api';
+
+export interface CartQuoteRequest {
+  restaurantId: number;
+  items: {
+    menuItemId: number;
+    quantity: number;
+  }[];
+}
+
+// Amounts are in bani (1/100 lei)
+export interface CartQuote {
+  restaurantId: number;
+  restaurantName: string;
+  restaurantOpen: boolean;
+  lines: {
+    menuItemId: number;
+    name: string;
+    quantity: number;
+    unitPriceCents: number;
+    lineTotalCents: number;
+  }[];
+  unavailableItems: {
+    menuItemId: number;
+    name: string | null;
+    reason: 'NOT_FOUND' | 'UNAVAILABLE';
+  }[];
+  subtotalCents: number;
+  deliveryFeeCents: number;
+  totalCents: number;
+  minOrderCents: number;
+  minOrderShortfallCents: number;
+  orderable: boolean;
+}
+
+export const formatCents = (cents: number) => (cents / 100).toFixed(2);
+
+export const cartService = {
+  async quote(request: CartQuoteRequest): Promise<CartQuote> {
+    const response = await api.post('/cart/quote', request);
+    return response.data;
+  },
+};
@@ -1,5 +1,6 @@
-import api from '@/config/api';
+import api, { API_URL } from '@/config/api';
 import { Order } from '@/types';
+import { CursorPage } from '@/services/restaurantService';
 
 export interface CreateOrderRequest {
   restaurantId: number;
@@ -13,7 +14,26 @@ export interface CreateOrderRequest {
   }[];
 }
 
+export interface RestaurantOrderStreamHandlers {
+  onOrder: (order: Order) => void;
+  onOrderDeleted: (orderId: number) => void;
+  // The server lost the events since our last one (restart or gap); reload from scratch
+  onResync: () => void;
+}
+
 export const orderService = {
+  subscribeToRestaurantOrders(restaurantId: number, handlers: RestaurantOrderStreamHandlers): () => void {
+    const source = new EventSource(`${API_URL}/orders/restaurant/${restaurantId}/stream`);
+    const onOrder = (event: MessageEvent) => handlers.onOrder(JSON.parse(event.data));
+    source.addEventListener('order-created', onOrder);
+    source.addEventListener('order-status-changed', onOrder);
+    source.addEventListener('order-deleted', (event: MessageEvent) =>
+      handlers.onOrderDeleted(JSON.parse(event.data).id)
+    );
+    source.addEventListener('resync', () => handlers.onResync());
+    return () => source.close();
+  },
+
   async createOrder(orderData: CreateOrderRequest): Promise<Order> {
     const response = await api.post('/orders', orderData);
     return response.data;
@@ -29,18 +49,29 @@ export const orderService = {
     return response.data;
   },
 
-  async getOrdersByRestaurant(restaurantId: number): Promise<Order[]> {
-    const response = await api.get(`/orders/restaurant/${restaurantId}`);
+  async getOrdersByRestaurantPage(
+    restaurantId: number,
+    cursor: string | null,
+    size = 20
+  ): Promise<CursorPage<Order>> {
+    const response = await api.get(`/orders/restaurant/${restaurantId}`, {
+      params: { cursor: cursor ?? undefined, size },
+    });
+    return response.data;
+  },
+
+  async getActiveOrdersByRestaurant(restaurantId: number): Promise<Order[]> {
+    const response = await api.get(`/orders/restaurant/${restaurantId}/active`);
     return response.data;
   },
 
-  async getOrdersByStatus(status: string): Promise<Order[]> {
-    const response = await api.get(`/orders/status/${status}`);
+  async getOrdersByStatus(status: string, cursor: string | null = null, size = 20): Promise<CursorPage<Order>> {
+    const response = await api.get(`/orders/status/${status}`, { params: { cursor: cursor ?? undefined, size } });
     return response.data;
   },
 
-  async updateOrderStatus(id: number, status: string): Promise<Order> {
-    const response = await api.patch(`/orders/${id}/status`, { status });
+  async updateOrderStatus(id: number, status: string, expectedVersion?: number): Promise<Order> {
+    const response = await api.patch(`/orders/${id}/status`, { status, expectedVersion });
     return response.data;
   },
 
@@ -1,9 +1,26 @@
 import api from '@/config/api';
 import { Restaurant } from '@/types';
 
+export interface CursorPage<T> {
+  content: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
 export const restaurantService = {
   async getAllRestaurants(): Promise<Restaurant[]> {
-    const response = await api.get('/restaurants');
+    const restaurants: Restaurant[] = [];
+    let cursor: string | null = null;
+    do {
+      const page: CursorPage<Restaurant> = await restaurantService.getRestaurantsPage(cursor, 100);
+      restaurants.push(...page.content);
+      cursor = page.hasMore ? page.nextCursor : null;
+    } while (cursor);
+    return restaurants;
+  },
+
+  async getRestaurantsPage(cursor: string | null, size = 20): Promise<CursorPage<Restaurant>> {
+    const response = await api.get('/restaurants', { params: { cursor: cursor ?? undefined, size } });
     return response.data;
   },
 
@@ -1,3 +1,16 @@
+export interface DeliveryEstimate {
+  prepMinutes: number;
+  prepMinutesP90: number;
+  handoffMinutes: number;
+  minMinutes: number;
+  maxMinutes: number;
+  activeOrders: number;
+  loadFactor: number;
+  samples: number;
+  estimatedReadyAt?: string | null;
+  estimatedCompletedAt?: string | null;
+}
+
 export interface Restaurant {
   id: number;
   name: string;
@@ -10,10 +23,14 @@ export interface Restaurant {
   minOrder: number;
   isOpen: boolean;
   address: string;
+  latitude?: number;
+  longitude?: number;
+  deliveryRadiusKm?: number;
   categories: string[];
   ownerId?: number;
   createdAt?: string;
   updatedAt?: string;
+  deliveryEstimate?: DeliveryEstimate | null;
 }
 
 export interface MenuItem {
@@ -55,10 +72,12 @@ export interface Order {
   items: OrderItem[];
   total: number;
   status: 'PENDING' | 'CONFIRMED' | 'PREPARING' | 'READY' | 'COMPLETED' | 'CANCELLED';
+  version?: number;
   createdAt: string;
   updatedAt?: string;
   customerName: string;
   customerPhone: string;
   customerAddress: string;
   notes?: string;
+  deliveryEstimate?: DeliveryEstimate | null;
 }